@@ -8,6 +8,7 @@ plugins {
     id("net.minecraftforge.gradle") version "[6.0,6.2)"
     id("org.parchmentmc.librarian.forgegradle") version "1.+"
     id("org.spongepowered.mixin") version "0.7.+"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 // Allows local configuration for a dev environment that importantly, isn't present on a build server.
@@ -20,6 +21,7 @@ plugins {
 // - "minify_resources" (to save time in dev)
 // - "mappings_channel", "mappings_version" (for better mappings in dev)
 // - "use_advanced_class_redefinition" (if using the Jetbrains Runtime JDK and want to enable -XX:+AllowEnhancedClassRedefinition for super amazing hotswap)
+// - "jmh_includes" (a regex of benchmarks to run with the jmh task, e.g. "NoiseBenchmark")
 File("./dev.gradle.kts").createNewFile()
 apply(from = "dev.gradle.kts")
 
@@ -45,6 +47,7 @@ val mappingsVersion: String = project.findProperty("mappings_version") as String
 val minifyResources: Boolean = project.findProperty("minify_resources") as Boolean? ?: false
 val zipResources: Boolean = project.findProperty("zip_resources") as Boolean? ?: false
 val useAdvancedClassRedef: Boolean = project.findProperty("use_advanced_class_redefinition") as Boolean? ?: false
+val jmhIncludes: String? = project.findProperty("jmh_includes") as String?
 
 println("Using mappings $mappingsChannel / $mappingsVersion with version $modVersion")
 
@@ -177,6 +180,26 @@ license {
     exclude("net/dries007/tfc/world/noise/FastNoiseLite.java") // Fast Noise
 }
 
+// World generation benchmarks, run with `gradlew jmh`. Results are written as JSON to build/reports/jmh/results.json
+// These bootstrap vanilla in the benchmark JVM (via TestHelper), so they run without a game instance or a display.
+jmh {
+    jmhVersion.set("1.37")
+    includeTests.set(true)
+
+    if (jmhIncludes != null) {
+        includes.add(jmhIncludes)
+    }
+
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    jvmArgs.addAll("-Xmx4G", "-Xms4G")
+    profilers.add("gc") // Allocation rate, per operation
+
+    resultFormat.set("JSON")
+    resultsFile.set(project.file("build/reports/jmh/results.json"))
+}
+
 mixin {
     add(sourceSets.main.get(), "$modId.refmap.json")
     add(sourceSets.test.get(), "$modId.refmap.json")
@@ -1469,6 +1469,8 @@ DEFAULT_LANG = {
     'tfc.commands.time.query.player_ticks': 'The player ticks is %s',
     'tfc.commands.time.query.calendar_ticks': 'The calendar ticks is %s',
     'tfc.commands.heat.set_heat': 'Held item heat set to %s',
+    'tfc.commands.itemsync.query': 'Skipped %s item syncs, wrote %s bytes of food and heat, and saved %s bytes (%s per tick)',
+    'tfc.commands.itemsync.reset': 'Item sync statistics reset',
     'tfc.commands.clear_world.starting': 'Clearing world. Prepare for lag...',
     'tfc.commands.clear_world.done': 'Cleared %d Block(s).',
     'tfc.commands.countblock.done': 'Found %d %s',
@@ -1483,6 +1485,7 @@ DEFAULT_LANG = {
     'tfc.commands.locate.invalid_biome_source': 'This world does not have a compatible biome source',
     'tfc.commands.locate.volcano_not_found': 'Could not find a volcano within reasonable distance',
     'tfc.commands.propick.found_blocks': 'The propick scan found %s %s',
+    'tfc.commands.propick.found_vein': 'Found vein %s at %s',
     'tfc.commands.propick.cleared': 'Cleared %s blocks, Found %s prospectable blocks',
     'tfc.commands.particle.no_fluid': 'Unknown Fluid: %s',
     'tfc.commands.trim.not_applied': 'A trim cannot be applied to this item',
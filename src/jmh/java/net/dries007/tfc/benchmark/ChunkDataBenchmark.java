@@ -0,0 +1,81 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.ChunkPos;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ChunkRockDataCache;
+import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
+
+/**
+ * Generates chunk data, and rock layers, with {@link RegionChunkDataGenerator}.
+ * Chunks are taken from a 64x64 window, so the regions they are generated from are cached after warmup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkDataBenchmark
+{
+    private static final int SURFACE_Y = 100;
+
+    private int chunkIndex;
+
+    @Benchmark
+    public ChunkData generate(WorldGenerationState state)
+    {
+        final ChunkData data = new ChunkData(state.chunkDataGenerator, nextChunk());
+        state.chunkDataGenerator.generate(data);
+        return data;
+    }
+
+    @Benchmark
+    public void generateRock(WorldGenerationState state, Blackhole blackhole)
+    {
+        generateRock(state, nextChunk(), null, blackhole);
+    }
+
+    @Benchmark
+    public void generateRockWithCache(WorldGenerationState state, Blackhole blackhole)
+    {
+        final ChunkPos pos = nextChunk();
+        generateRock(state, pos, new ChunkRockDataCache(pos), blackhole);
+    }
+
+    /**
+     * Generates the rock for every fourth block of each column, from the bottom of the world to the surface.
+     */
+    private void generateRock(WorldGenerationState state, ChunkPos pos, @Nullable ChunkRockDataCache cache, Blackhole blackhole)
+    {
+        final int minX = pos.getMinBlockX(), minZ = pos.getMinBlockZ();
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                for (int y = -64; y < SURFACE_Y; y += 4)
+                {
+                    blackhole.consume(state.chunkDataGenerator.generateRock(minX + x, y, minZ + z, SURFACE_Y, cache));
+                }
+            }
+        }
+    }
+
+    private ChunkPos nextChunk()
+    {
+        chunkIndex = (chunkIndex + 1) & 4095;
+        return new ChunkPos(chunkIndex & 63, chunkIndex >> 6);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.ChunkPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.dries007.tfc.world.BiomeNoiseSampler;
+import net.dries007.tfc.world.BiomeSampleCache;
+import net.dries007.tfc.world.ChunkHeightFiller;
+import net.dries007.tfc.world.SampledBiomeWeights;
+import net.dries007.tfc.world.TFCChunkGenerator;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+
+/**
+ * Samples biome weights, and then the blended height of every column of a chunk, with the same samplers as {@link net.dries007.tfc.world.ChunkNoiseFiller#fillFromNoise()}.
+ * The later stages, which place blocks and fluids into a chunk, depend on TFC's blocks and fluids being registered, which requires a full game instance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkHeightFillerBenchmark
+{
+    private Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers;
+    private BiomeSampleCache chunkBiomeSamples;
+    private BiomeSampleCache quartBiomeSamples;
+    private int chunkIndex;
+
+    @Setup(Level.Trial)
+    public void setup(WorldGenerationState state)
+    {
+        biomeNoiseSamplers = new IdentityHashMap<>();
+        for (BiomeExtension extension : TFCBiomes.getExtensions())
+        {
+            final BiomeNoiseSampler sampler = extension.createNoiseSampler(WorldGenerationState.SEED);
+            if (sampler != null)
+            {
+                biomeNoiseSamplers.put(extension, sampler);
+            }
+        }
+        chunkBiomeSamples = new BiomeSampleCache(state::sampleBiomeNoRiver, 4, 64);
+        quartBiomeSamples = new BiomeSampleCache(state::sampleBiomeNoRiver, 2, 1024);
+    }
+
+    @Benchmark
+    public double sampleChunkHeight()
+    {
+        chunkIndex = (chunkIndex + 1) & 4095;
+
+        final ChunkPos pos = new ChunkPos(chunkIndex & 63, chunkIndex >> 6);
+        final SampledBiomeWeights weights = TFCChunkGenerator.sampleBiomes(pos, chunkBiomeSamples, quartBiomeSamples);
+        final ChunkHeightFiller filler = new ChunkHeightFiller(biomeNoiseSamplers, weights);
+        final int minX = pos.getMinBlockX(), minZ = pos.getMinBlockZ();
+
+        double height = 0;
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                height += filler.sampleHeight(minX + x, minZ + z);
+            }
+        }
+        filler.release();
+        return height;
+    }
+}
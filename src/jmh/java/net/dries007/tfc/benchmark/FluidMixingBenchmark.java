@@ -0,0 +1,166 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.material.FlowingFluid;
+import net.minecraft.world.level.material.Fluids;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.fluids.FluidHelpers;
+
+/**
+ * Tallies the adjacent sources of every block along a synthetic shoreline, as {@link FluidHelpers#getNewFluidWithMixing} does on each fluid tick, and selects the source which could form there.
+ * The shoreline is mostly one fluid, with an estuary where a second fluid meets it, so both the single fluid and mixed fluid cases are included.
+ * {@code map} tallies sources into a map, with a new position for each neighbour, as mixing was implemented before. {@code tally} uses {@link FluidHelpers.AdjacentSources}, and a single mutable position, as mixing is implemented now.
+ * Run with {@code -prof gc} to compare allocations per tick. Reading block states requires a full game instance, so only the tally is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FluidMixingBenchmark
+{
+    private static final int SIZE = 128;
+    private static final Direction[] HORIZONTAL_DIRECTIONS = {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST};
+
+    private FlowingFluid[] sources; // Indexed by x + z * SIZE, null for land
+    private List<BlockPos> shoreline;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        TestHelper.bootstrap();
+
+        final RandomSource random = RandomSource.create(WorldGenerationState.SEED);
+        sources = new FlowingFluid[SIZE * SIZE];
+        for (int z = 0; z < SIZE; z++)
+        {
+            final int shoreX = SIZE / 2 + random.nextInt(9) - 4;
+            final boolean estuary = z > SIZE / 3 && z < SIZE / 2;
+            for (int x = 0; x < SIZE; x++)
+            {
+                if (x < shoreX)
+                {
+                    sources[x + z * SIZE] = estuary && x > shoreX - 8 && random.nextBoolean() ? Fluids.LAVA : Fluids.WATER;
+                }
+                else if (estuary && x < shoreX + 24 && z > SIZE / 3 + 4 && z < SIZE / 2 - 4)
+                {
+                    sources[x + z * SIZE] = Fluids.LAVA; // The river which flows into the sea
+                }
+            }
+        }
+
+        // Every position with an adjacent source would be updated by a fluid tick
+        shoreline = new ArrayList<>();
+        for (int z = 1; z < SIZE - 1; z++)
+        {
+            for (int x = 1; x < SIZE - 1; x++)
+            {
+                final BlockPos pos = new BlockPos(x, 0, z);
+                boolean adjacentSource = false, adjacentLand = source(pos) == null;
+                for (Direction direction : HORIZONTAL_DIRECTIONS)
+                {
+                    final boolean isSource = source(pos.relative(direction)) != null;
+                    adjacentSource |= isSource;
+                    adjacentLand |= !isSource;
+                }
+                if (adjacentSource && adjacentLand)
+                {
+                    shoreline.add(pos);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void map(Blackhole blackhole)
+    {
+        for (BlockPos pos : shoreline)
+        {
+            int adjacentSourceBlocks = 0;
+            final Object2IntArrayMap<FlowingFluid> adjacentSourceBlocksByFluid = new Object2IntArrayMap<>(2);
+            for (Direction direction : Direction.Plane.HORIZONTAL)
+            {
+                final FlowingFluid source = source(pos.relative(direction));
+                if (source != null)
+                {
+                    adjacentSourceBlocks++;
+                    adjacentSourceBlocksByFluid.mergeInt(source, 1, Integer::sum);
+                }
+            }
+
+            blackhole.consume(pos.below());
+            if (adjacentSourceBlocks >= 2)
+            {
+                FlowingFluid maximumAdjacentSourceFluid = Fluids.WATER;
+                int maximumAdjacentSourceBlocks = 0;
+                for (Object2IntMap.Entry<FlowingFluid> entry : adjacentSourceBlocksByFluid.object2IntEntrySet())
+                {
+                    if (entry.getIntValue() > maximumAdjacentSourceBlocks || entry.getKey() == Fluids.WATER)
+                    {
+                        maximumAdjacentSourceBlocks = entry.getIntValue();
+                        maximumAdjacentSourceFluid = entry.getKey();
+                    }
+                }
+                blackhole.consume(maximumAdjacentSourceFluid);
+                blackhole.consume(maximumAdjacentSourceBlocks);
+            }
+            blackhole.consume(pos.above());
+        }
+    }
+
+    @Benchmark
+    public void tally(Blackhole blackhole)
+    {
+        for (BlockPos pos : shoreline)
+        {
+            final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+            final FluidHelpers.AdjacentSources adjacentSources = new FluidHelpers.AdjacentSources();
+            for (Direction direction : HORIZONTAL_DIRECTIONS)
+            {
+                final FlowingFluid source = source(cursor.setWithOffset(pos, direction));
+                if (source != null)
+                {
+                    adjacentSources.add(source);
+                }
+            }
+
+            blackhole.consume(cursor.setWithOffset(pos, Direction.DOWN).asLong());
+            if (adjacentSources.size() >= 2)
+            {
+                final FlowingFluid maximumAdjacentSourceFluid = adjacentSources.selectMaximum(Fluids.WATER);
+                blackhole.consume(maximumAdjacentSourceFluid);
+                blackhole.consume(adjacentSources.count(maximumAdjacentSourceFluid));
+            }
+            blackhole.consume(cursor.setWithOffset(pos, Direction.UP).asLong());
+        }
+    }
+
+    @Nullable
+    private FlowingFluid source(BlockPos pos)
+    {
+        return sources[pos.getX() + pos.getZ() * SIZE];
+    }
+}
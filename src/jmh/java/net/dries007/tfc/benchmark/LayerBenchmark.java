@@ -0,0 +1,80 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.AreaFactory;
+
+/**
+ * Samples a 32x32 window from each of the {@link TFCLayers} area stacks.
+ * Each sample uses a new {@link Area}, so this measures the full stack of layers, rather than the area's cache. The window stays within a few regions, so the regions the layers are built on are cached after warmup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LayerBenchmark
+{
+    private static final int SIZE = 32;
+
+    private AreaFactory biomeLayer;
+    private AreaFactory rockLayer;
+    private AreaFactory forestLayer;
+    private int offsetX;
+
+    @Setup(Level.Trial)
+    public void setup(WorldGenerationState state)
+    {
+        biomeLayer = TFCLayers.createRegionBiomeLayer(state.regionGenerator, WorldGenerationState.SEED);
+        rockLayer = TFCLayers.createOverworldRockLayer(state.regionGenerator, WorldGenerationState.SEED);
+        forestLayer = TFCLayers.createOverworldForestLayer(WorldGenerationState.SEED, IArtist.nope());
+    }
+
+    @Benchmark
+    public int regionBiomeLayer()
+    {
+        return sample(biomeLayer);
+    }
+
+    @Benchmark
+    public int rockLayer()
+    {
+        return sample(rockLayer);
+    }
+
+    @Benchmark
+    public int forestLayer()
+    {
+        return sample(forestLayer);
+    }
+
+    private int sample(AreaFactory factory)
+    {
+        final Area area = factory.get();
+        final int minX = offsetX = (offsetX + SIZE) & 1023;
+        int value = 0;
+        for (int x = 0; x < SIZE; x++)
+        {
+            for (int z = 0; z < SIZE; z++)
+            {
+                value += area.get(minX + x, z);
+            }
+        }
+        return value;
+    }
+}
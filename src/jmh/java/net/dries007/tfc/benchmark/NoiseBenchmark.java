@@ -0,0 +1,126 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.dries007.tfc.world.noise.Cellular2D;
+import net.dries007.tfc.world.noise.Noise2D;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+
+/**
+ * Samples a chunk (16x16 columns) of noise, both one point at a time and as a batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NoiseBenchmark
+{
+    private Noise2D simplex;
+    private Noise2D simplexOctaves;
+    private Cellular2D cellular;
+    private double[] out;
+    private int chunkX;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        simplex = new OpenSimplex2D(WorldGenerationState.SEED).spread(0.01f);
+        simplexOctaves = new OpenSimplex2D(WorldGenerationState.SEED).octaves(4).spread(0.01f).scaled(-10, 30);
+        cellular = new Cellular2D(WorldGenerationState.SEED).spread(0.05f);
+        out = new double[16 * 16];
+    }
+
+    @Benchmark
+    public double simplexPoint()
+    {
+        return samplePoints(simplex);
+    }
+
+    @Benchmark
+    public double[] simplexGrid()
+    {
+        return sampleGrid(simplex);
+    }
+
+    @Benchmark
+    public double simplexOctavesPoint()
+    {
+        return samplePoints(simplexOctaves);
+    }
+
+    @Benchmark
+    public double[] simplexOctavesGrid()
+    {
+        return sampleGrid(simplexOctaves);
+    }
+
+    @Benchmark
+    public double cellularPoint()
+    {
+        return samplePoints(cellular);
+    }
+
+    @Benchmark
+    public double[] cellularGrid()
+    {
+        return sampleGrid(cellular);
+    }
+
+    @Benchmark
+    public double cellularCell()
+    {
+        final int minX = nextChunkX();
+        double value = 0;
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                final Cellular2D.Cell cell = cellular.cell(minX + x, z);
+                value += cell.f1() + cell.f2();
+            }
+        }
+        return value;
+    }
+
+    private double samplePoints(Noise2D noise)
+    {
+        final int minX = nextChunkX();
+        double value = 0;
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                value += noise.noise(minX + x, z);
+            }
+        }
+        return value;
+    }
+
+    private double[] sampleGrid(Noise2D noise)
+    {
+        noise.fillGrid(out, nextChunkX(), 0, 1, 16, 16);
+        return out;
+    }
+
+    /**
+     * Advances by one chunk each sample, so nothing is sampled at the same position twice in a row.
+     */
+    private int nextChunkX()
+    {
+        chunkX = (chunkX + 16) & 0xFFFFF;
+        return chunkX;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.region.Region;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.region.Units;
+
+/**
+ * Builds regions with {@link RegionGenerator#getOrCreateRegion(int, int)}.
+ * {@code createRegion} requests a different cell each time, spaced far enough apart that it always misses the generator's cache. {@code cachedRegion} requests the same cell each time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RegionGeneratorBenchmark
+{
+    private static final int CELLS = 4096; // Much larger than the generator's cache
+
+    private RegionGenerator generator;
+    private int cell;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        TestHelper.bootstrap();
+        generator = new RegionGenerator(WorldGenerationState.settings(), new XoroshiroRandomSource(WorldGenerationState.SEED));
+    }
+
+    @Benchmark
+    public Region createRegion()
+    {
+        cell = (cell + 1) % CELLS;
+        return generator.getOrCreateRegion(cell * Units.CELL_WIDTH_IN_GRID * 2, 0);
+    }
+
+    @Benchmark
+    public Region cachedRegion()
+    {
+        return generator.getOrCreateRegion(0, 0);
+    }
+}
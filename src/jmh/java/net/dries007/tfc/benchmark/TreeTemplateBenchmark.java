@@ -0,0 +1,147 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.feature.tree.CompiledTemplate;
+import net.dries007.tfc.world.feature.tree.TreeHelpers;
+
+/**
+ * Transforms a tree template for placement, as every tree placed by {@link net.dries007.tfc.world.feature.tree.ForestFeature} does, with a random rotation and mirror each time.
+ * {@code processed} processes and transforms each block, as trees were placed before templates were compiled. {@code compiled} reads the same blocks from a {@link CompiledTemplate}.
+ * Writing the blocks into a level requires a full game instance, so only the work which differs between the two is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreeTemplateBenchmark
+{
+    private static final int WIDTH = 7, HEIGHT = 12; // Similar in size to a large tree template
+
+    private StructureTemplate template;
+    private StructureTemplate.Palette palette;
+    private StructurePlaceSettings settings;
+    private RandomSource random;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException
+    {
+        TestHelper.bootstrap();
+
+        template = new StructureTemplate();
+        template.load(BuiltInRegistries.BLOCK.asLookup(), createTree());
+
+        // Mixins are not applied here, so the palettes are accessed directly
+        final Field field = StructureTemplate.class.getDeclaredField("palettes");
+        field.setAccessible(true);
+        palette = ((List<StructureTemplate.Palette>) field.get(template)).get(0);
+
+        random = RandomSource.create(WorldGenerationState.SEED);
+        settings = new StructurePlaceSettings()
+            .setRandom(random)
+            .addProcessor(BlockIgnoreProcessor.STRUCTURE_AND_AIR);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public void processed(Blackhole blackhole)
+    {
+        TreeHelpers.randomize(settings, random);
+        for (StructureTemplate.StructureBlockInfo blockInfo : StructureTemplate.processBlockInfos(null, BlockPos.ZERO, BlockPos.ZERO, settings, palette.blocks(), template))
+        {
+            blackhole.consume(blockInfo.pos());
+            blackhole.consume(blockInfo.state().mirror(settings.getMirror()).rotate(settings.getRotation()));
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole)
+    {
+        TreeHelpers.randomize(settings, random);
+        final CompiledTemplate compiled = CompiledTemplate.get(palette, settings.getMirror(), settings.getRotation());
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < compiled.size(); i++)
+        {
+            blackhole.consume(compiled.move(cursor, BlockPos.ZERO, i).asLong());
+            blackhole.consume(compiled.state(i));
+        }
+    }
+
+    /**
+     * A template with a trunk of logs, and a sphere of leaves, with the remainder filled with air as in exported tree templates.
+     */
+    private static CompoundTag createTree()
+    {
+        final BlockState[] states = {Blocks.AIR.defaultBlockState(), Blocks.OAK_LOG.defaultBlockState(), Blocks.OAK_LEAVES.defaultBlockState()};
+        final ListTag palette = new ListTag();
+        for (BlockState state : states)
+        {
+            palette.add(NbtUtils.writeBlockState(state));
+        }
+
+        final ListTag blocks = new ListTag();
+        final int center = WIDTH / 2;
+        for (int x = 0; x < WIDTH; x++)
+        {
+            for (int y = 0; y < HEIGHT; y++)
+            {
+                for (int z = 0; z < WIDTH; z++)
+                {
+                    final int dx = x - center, dy = y - (HEIGHT - center - 1), dz = z - center;
+                    final int state = x == center && z == center && y < HEIGHT - 2 ? 1 : dx * dx + dy * dy + dz * dz <= center * center ? 2 : 0;
+
+                    final CompoundTag block = new CompoundTag();
+                    block.put("pos", list(x, y, z));
+                    block.putInt("state", state);
+                    blocks.add(block);
+                }
+            }
+        }
+
+        final CompoundTag tag = new CompoundTag();
+        tag.put("size", list(WIDTH, HEIGHT, WIDTH));
+        tag.put("palette", palette);
+        tag.put("blocks", blocks);
+        tag.put("entities", new ListTag());
+        return tag;
+    }
+
+    private static ListTag list(int x, int y, int z)
+    {
+        final ListTag list = new ListTag();
+        list.add(IntTag.valueOf(x));
+        list.add(IntTag.valueOf(y));
+        list.add(IntTag.valueOf(z));
+        return list;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.minecraft.core.QuartPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.ConcurrentArea;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
+import net.dries007.tfc.world.settings.Settings;
+
+/**
+ * The world generation pipeline, set up as {@link net.dries007.tfc.world.TFCChunkGenerator#initRandomState} would, but without a level.
+ * A fixed seed is used so results are comparable between runs.
+ */
+@State(Scope.Benchmark)
+public class WorldGenerationState
+{
+    public static final long SEED = 1842639486192314L;
+
+    public static RockLayerSettings rockLayerSettings()
+    {
+        return new RockLayerSettings.Data(
+            Map.of("rock", new RockSettings(Blocks.STONE, Blocks.DEEPSLATE, null, null, null, null, Optional.empty(), Optional.empty(), Optional.empty())),
+            List.of("rock"),
+            List.of(new RockLayerSettings.LayerData("base", Map.of("rock", "bottom"))),
+            List.of("base"),
+            List.of("base"),
+            List.of("base"),
+            List.of("base")
+        ).parse();
+    }
+
+    public static Settings settings()
+    {
+        return new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, rockLayerSettings(), 0.5f);
+    }
+
+    public RegionGenerator regionGenerator;
+    public RegionChunkDataGenerator chunkDataGenerator;
+    public ConcurrentArea<BiomeExtension> biomeLayer;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        TestHelper.bootstrap();
+
+        final Settings settings = settings();
+        final XoroshiroRandomSource random = new XoroshiroRandomSource(SEED);
+
+        regionGenerator = new RegionGenerator(settings, random);
+        chunkDataGenerator = RegionChunkDataGenerator.create(random.nextLong(), settings.rockLayerSettings(), regionGenerator);
+        biomeLayer = new ConcurrentArea<>(TFCLayers.createRegionBiomeLayer(regionGenerator, random.nextLong()), TFCLayers::getFromLayerId);
+    }
+
+    /**
+     * @return The biome, excluding rivers, at a block position, as sampled by the chunk generator.
+     */
+    public BiomeExtension sampleBiomeNoRiver(int blockX, int blockZ)
+    {
+        return biomeLayer.get(QuartPos.fromBlock(blockX), QuartPos.fromBlock(blockZ));
+    }
+}
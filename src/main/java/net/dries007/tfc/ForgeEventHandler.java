@@ -152,6 +152,7 @@ import net.dries007.tfc.common.blocks.devices.PitKilnBlock;
 import net.dries007.tfc.common.blocks.devices.PowderkegBlock;
 import net.dries007.tfc.common.blocks.devices.SluiceBlock;
 import net.dries007.tfc.common.blocks.rock.AqueductBlock;
+import net.dries007.tfc.common.blocks.rock.AqueductNetworkManager;
 import net.dries007.tfc.common.blocks.rock.Rock;
 import net.dries007.tfc.common.blocks.rock.RockAnvilBlock;
 import net.dries007.tfc.common.blocks.wood.TFCLecternBlock;
@@ -222,6 +223,8 @@ import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 import net.dries007.tfc.world.ChunkGeneratorExtension;
 import net.dries007.tfc.world.chunkdata.ChunkData;
 import net.dries007.tfc.world.chunkdata.ChunkDataCache;
+import net.dries007.tfc.world.chunkdata.HydrationField;
+import net.dries007.tfc.world.feature.tree.CompiledTemplate;
 
 public final class ForgeEventHandler
 {
@@ -456,6 +459,14 @@ public final class ForgeEventHandler
                 ChunkDataCache.SERVER.update(pos, data);
                 ChunkDataCache.WATCH_QUEUE.dequeueLoadedChunk(pos, data);
             });
+            if (event.getLevel() instanceof Level level)
+            {
+                final AqueductNetworkManager aqueducts = AqueductNetworkManager.get(level);
+                if (aqueducts != null)
+                {
+                    aqueducts.onChunkChanged(pos);
+                }
+            }
         }
     }
 
@@ -465,6 +476,14 @@ public final class ForgeEventHandler
         if (!Helpers.isClientSide(event.getLevel()) && !(event.getChunk() instanceof EmptyLevelChunk))
         {
             ChunkDataCache.SERVER.remove(event.getChunk().getPos());
+            if (event.getLevel() instanceof Level level)
+            {
+                final AqueductNetworkManager aqueducts = AqueductNetworkManager.get(level);
+                if (aqueducts != null)
+                {
+                    aqueducts.onChunkChanged(event.getChunk().getPos());
+                }
+            }
         }
     }
 
@@ -1507,6 +1526,9 @@ public final class ForgeEventHandler
 
         // In addition, we capture the recipe manager here
         Helpers.setCachedRecipeManager(event.getServerResources().getRecipeManager());
+
+        // Structure templates are reloaded, so any compiled from the previous templates are stale
+        CompiledTemplate.clearCache();
     }
 
     public static void onDataPackSync(OnDatapackSyncEvent event)
@@ -1540,6 +1562,9 @@ public final class ForgeEventHandler
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static void onTagsUpdated(TagsUpdatedEvent event)
     {
+        // Cached hydration depends on which fluids are hydrating
+        HydrationField.onTagsUpdated();
+
         if (event.shouldUpdateStaticData())
         {
             // First, reload all caches
@@ -8,7 +8,6 @@ package net.dries007.tfc.common.blockentities;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
@@ -23,7 +22,6 @@ import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -60,8 +58,9 @@ import net.dries007.tfc.common.capabilities.size.Weight;
 import net.dries007.tfc.common.container.BarrelContainer;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.recipes.BarrelRecipe;
+import net.dries007.tfc.common.recipes.InstantBarrelRecipe;
+import net.dries007.tfc.common.recipes.InstantFluidBarrelRecipe;
 import net.dries007.tfc.common.recipes.SealedBarrelRecipe;
-import net.dries007.tfc.common.recipes.TFCRecipeTypes;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
@@ -137,27 +136,30 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
             barrel.needsInstantRecipeUpdate = false;
             if (barrel.inventory.excess.isEmpty()) // Excess must be empty for instant recipes to apply
             {
-                final RecipeManager recipeManager = level.getRecipeManager();
-                Optional.<BarrelRecipe>empty() // For type erasure
-                    .or(() -> recipeManager.getRecipeFor(TFCRecipeTypes.BARREL_INSTANT.get(), barrel.inventory, level))
-                    .or(() -> recipeManager.getRecipeFor(TFCRecipeTypes.BARREL_INSTANT_FLUID.get(), barrel.inventory, level))
-                    .ifPresent(instantRecipe -> {
-                        instantRecipe.assembleOutputs(barrel.inventory);
-                        if (barrel.soundCooldownTicks == 0)
+                BarrelRecipe instantRecipe = InstantBarrelRecipe.getRecipe(barrel.inventory, level, barrel.lastInstantRecipe instanceof InstantBarrelRecipe r ? r : null);
+                if (instantRecipe == null)
+                {
+                    instantRecipe = InstantFluidBarrelRecipe.getRecipe(barrel.inventory, level, barrel.lastInstantRecipe instanceof InstantFluidBarrelRecipe r ? r : null);
+                }
+                if (instantRecipe != null)
+                {
+                    barrel.lastInstantRecipe = instantRecipe;
+                    instantRecipe.assembleOutputs(barrel.inventory);
+                    if (barrel.soundCooldownTicks == 0)
+                    {
+                        Helpers.playSound(level, barrel.getBlockPos(), instantRecipe.getCompleteSound());
+                        barrel.soundCooldownTicks = 5;
+                        if (instantRecipe.getCompleteSound() == SoundEvents.FIRE_EXTINGUISH && level instanceof ServerLevel server)
                         {
-                            Helpers.playSound(level, barrel.getBlockPos(), instantRecipe.getCompleteSound());
-                            barrel.soundCooldownTicks = 5;
-                            if (instantRecipe.getCompleteSound() == SoundEvents.FIRE_EXTINGUISH && level instanceof ServerLevel server)
-                            {
-                                final double x = pos.getX() + 0.5;
-                                final double y = pos.getY();
-                                final double z = pos.getZ() + 0.5;
-                                final RandomSource random = level.getRandom();
-                                server.sendParticles(TFCParticles.BUBBLE.get(), x + random.nextFloat() * 0.375 - 0.1875, y + 15f / 16f, z + random.nextFloat() * 0.375 - 0.1875, 6, 0, 0, 0, 1);
-                                server.sendParticles(TFCParticles.STEAM.get(), x + random.nextFloat() * 0.375 - 0.1875, y + 15f / 16f, z + random.nextFloat() * 0.375 - 0.1875, 6, 0, 0, 0, 1);
-                            }
+                            final double x = pos.getX() + 0.5;
+                            final double y = pos.getY();
+                            final double z = pos.getZ() + 0.5;
+                            final RandomSource random = level.getRandom();
+                            server.sendParticles(TFCParticles.BUBBLE.get(), x + random.nextFloat() * 0.375 - 0.1875, y + 15f / 16f, z + random.nextFloat() * 0.375 - 0.1875, 6, 0, 0, 0, 1);
+                            server.sendParticles(TFCParticles.STEAM.get(), x + random.nextFloat() * 0.375 - 0.1875, y + 15f / 16f, z + random.nextFloat() * 0.375 - 0.1875, 6, 0, 0, 0, 1);
                         }
-                    });
+                    }
+                }
                 barrel.markForSync();
             }
         }
@@ -194,6 +196,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
     @Nullable private BlockPos pourPos = null;
 
     private boolean needsInstantRecipeUpdate; // If the instant recipe needs to be checked again
+    @Nullable private BarrelRecipe lastInstantRecipe; // The instant recipe which last applied, checked first the next time
 
     public BarrelBlockEntity(BlockPos pos, BlockState state)
     {
@@ -487,7 +490,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         if (inventory.excess.isEmpty())
         {
             // Will only work on a recipe as long as the 'excess' is empty
-            recipe = level.getRecipeManager().getRecipeFor(TFCRecipeTypes.BARREL_SEALED.get(), inventory, level).orElse(null);
+            recipe = SealedBarrelRecipe.getRecipe(inventory, level, oldRecipe);
             if (recipe != null && oldRecipe != recipe && (oldRecipe == null || !oldRecipe.getId().equals(recipe.getId())))
             {
                 // The recipe has changed to a new one, so update the recipe ticks
@@ -544,7 +547,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         {
             if (recipe == null)
             {
-                recipe = level.getRecipeManager().getRecipeFor(TFCRecipeTypes.BARREL_SEALED.get(), inventory, level).orElse(null);
+                recipe = SealedBarrelRecipe.getRecipe(inventory, level, oldRecipe);
             }
             if (recipe != null)
             {
@@ -17,6 +17,7 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.client.TFCSounds;
 import net.dries007.tfc.common.blockentities.CropBlockEntity;
@@ -31,6 +32,9 @@ import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.calendar.ICalendar;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateRange;
+import net.dries007.tfc.util.climate.TemperatureTimeline;
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 
 /**
  * Common growth logic for crop blocks
@@ -39,6 +43,7 @@ import net.dries007.tfc.util.climate.ClimateRange;
 public final class CropHelpers
 {
     public static final long UPDATE_INTERVAL = 2 * ICalendar.TICKS_IN_DAY;
+    public static final int CATCH_UP_INTERVALS = 8; // Crops which have not grown for longer than this many intervals are caught up with shared temperatures
 
     public static final float GROWTH_FACTOR = 1f / (24 * ICalendar.TICKS_IN_DAY);
     public static final float NUTRIENT_CONSUMPTION = 1f / (12 * ICalendar.TICKS_IN_DAY);
@@ -59,6 +64,15 @@ public final class CropHelpers
     public static boolean growthTick(Level level, BlockPos pos, BlockState state, CropBlockEntity crop)
     {
         final long firstTick = crop.getLastGrowthTick(), thisTick = Calendars.SERVER.getTicks();
+        if (thisTick - firstTick > CATCH_UP_INTERVALS * UPDATE_INTERVAL)
+        {
+            final TemperatureTimeline timeline = level.getCapability(WorldTrackerCapability.CAPABILITY).map(WorldTracker::getTemperatureTimeline).orElse(null);
+            if (timeline != null)
+            {
+                return catchUpGrowthTick(level, pos, state, crop, timeline, firstTick, thisTick);
+            }
+        }
+
         long tick = firstTick + CropHelpers.UPDATE_INTERVAL, lastTick = firstTick;
         for (; tick < thisTick; tick += CropHelpers.UPDATE_INTERVAL)
         {
@@ -71,6 +85,32 @@ public final class CropHelpers
         return lastTick >= thisTick || CropHelpers.growthTickStep(level, pos, state, level.getRandom(), lastTick, thisTick, crop);
     }
 
+    /**
+     * Simulates the same steps as {@link #growthTick(Level, BlockPos, BlockState, CropBlockEntity)}, for a crop which has been unloaded for a long time.
+     * Nothing around the crop can change while it is unloaded, so the hydration and farmland are only found once, and temperatures are shared with every other crop in the same chunk through the {@code timeline}.
+     */
+    private static boolean catchUpGrowthTick(Level level, BlockPos pos, BlockState state, CropBlockEntity crop, TemperatureTimeline timeline, long firstTick, long thisTick)
+    {
+        final BlockPos sourcePos = pos.below();
+        final int hydration = FarmlandBlock.getHydration(level, sourcePos);
+        final IFarmland farmland = level.getBlockEntity(sourcePos) instanceof IFarmland found ? found : null;
+
+        long lastTick = firstTick;
+        float lastTemperature = timeline.getTemperature(level, pos, firstTick);
+        while (lastTick < thisTick)
+        {
+            final long tick = Math.min(lastTick + UPDATE_INTERVAL, thisTick);
+            final float temperature = timeline.getTemperature(level, pos, tick);
+            if (!growthTickStep(level, pos, state, level.getRandom(), tick - lastTick, hydration, lastTemperature, temperature, farmland, crop))
+            {
+                return false;
+            }
+            lastTick = tick;
+            lastTemperature = temperature;
+        }
+        return true;
+    }
+
     public static boolean growthTickStep(Level level, BlockPos pos, BlockState state, RandomSource random, long fromTick, long toTick, CropBlockEntity crop)
     {
         // Calculate invariants
@@ -79,8 +119,13 @@ public final class CropHelpers
         final int hydration = FarmlandBlock.getHydration(level, sourcePos);
         final float startTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(fromTick));
         final float endTemperature = Climate.getTemperature(level, pos, calendar, Calendars.SERVER.ticksToCalendarTicks(toTick));
-        final long tickDelta = toTick - fromTick;
+        final IFarmland farmland = level.getBlockEntity(sourcePos) instanceof IFarmland found ? found : null;
 
+        return growthTickStep(level, pos, state, random, toTick - fromTick, hydration, startTemperature, endTemperature, farmland, crop);
+    }
+
+    private static boolean growthTickStep(Level level, BlockPos pos, BlockState state, RandomSource random, long tickDelta, int hydration, float startTemperature, float endTemperature, @Nullable IFarmland farmland, CropBlockEntity crop)
+    {
         final ICropBlock cropBlock = (ICropBlock) state.getBlock();
         final ClimateRange range = cropBlock.getClimateRange();
         final boolean growing = checkClimate(range, hydration, startTemperature, endTemperature, false);
@@ -91,7 +136,7 @@ public final class CropHelpers
 
         final FarmlandBlockEntity.NutrientType primaryNutrient = cropBlock.getPrimaryNutrient();
         float nutrientsAvailable = 0, nutrientsRequired = NUTRIENT_CONSUMPTION * tickDelta, nutrientsConsumed = 0;
-        if (level.getBlockEntity(sourcePos) instanceof IFarmland farmland)
+        if (farmland != null)
         {
             nutrientsAvailable = farmland.getNutrient(primaryNutrient);
             nutrientsConsumed = farmland.consumeNutrientAndResupplyOthers(primaryNutrient, nutrientsRequired);
@@ -155,7 +200,7 @@ public final class CropHelpers
         crop.setGrowth(growth);
         crop.setYield(actualYield);
         crop.setExpiry(expiry);
-        crop.setLastGrowthTick(calendar.getTicks());
+        crop.setLastGrowthTick(Calendars.get(level).getTicks());
 
         return true;
     }
@@ -26,7 +26,6 @@ import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.block.state.properties.BooleanProperty;
 import net.minecraft.world.level.material.FlowingFluid;
-import net.minecraft.world.level.material.Fluid;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 import net.minecraft.world.phys.shapes.CollisionContext;
@@ -84,10 +83,9 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
         }
     }
 
-    private static final int SHORT_TICK_DELAY = 5;
-    private static final int LONG_TICK_DELAY = SHORT_TICK_DELAY * 4;
+    private static final int TICK_DELAY = 5;
 
-    private static boolean isValidSource(BlockState state)
+    static boolean isValidSource(BlockState state)
     {
         // An aqueduct source may be a source block, or a flowing fluid at level = 8
         return !state.isAir() && (state.getFluidState().isSource() || (state.getFluidState().hasProperty(FlowingFluid.LEVEL) && state.getFluidState().getValue(FlowingFluid.LEVEL) == 8));
@@ -120,23 +118,6 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
         return state;
     }
 
-    private static void tickAllAdjacentAqueducts(LevelAccessor level, BlockPos pos, int tickDelay, @Nullable Direction excludedDirection)
-    {
-        for (final Direction direction : Direction.Plane.HORIZONTAL)
-        {
-            if (direction == excludedDirection)
-            {
-                continue;
-            }
-            final BlockPos adjacentPos = pos.relative(direction);
-            final BlockState adjacentState = level.getBlockState(adjacentPos);
-            if (adjacentState.getBlock() instanceof AqueductBlock)
-            {
-                level.scheduleTick(adjacentPos, adjacentState.getBlock(), tickDelay);
-            }
-        }
-    }
-
     public AqueductBlock(Properties properties)
     {
         super(properties);
@@ -154,13 +135,17 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
     @Override
     public void setPlacedBy(Level level, BlockPos pos, BlockState state, @Nullable LivingEntity placer, ItemStack stack)
     {
-        level.scheduleTick(pos, this, LONG_TICK_DELAY);
+        updateNetwork(level, pos, true);
     }
 
     @Override
     @SuppressWarnings("deprecation")
     public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean isMoving)
     {
+        if (newState.getBlock() != this)
+        {
+            updateNetwork(level, pos, true); // Aqueducts which were fed through this one must be emptied
+        }
         if (newState.getBlock() != this && // When replacing with another block, aka air
             state.getValue(getFluidProperty()).getFluid() != Fluids.EMPTY && // And the aqueduct currently has fluid
             newState.getFluidState().getType().isSame(state.getValue(getFluidProperty()).getFluid())) // And we're replacing with the same fluid currently in the block
@@ -187,9 +172,13 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
     {
         FluidHelpers.tickFluid(level, pos, state);
         final BlockState newState = updateOpenSides(level, pos, state);
-        if (state != newState || (state.getValue(getFluidProperty()).getFluid() == Fluids.EMPTY ? direction.getAxis().getPlane() == Direction.Plane.HORIZONTAL && state.getValue(DirectionPropertyBlock.getProperty(direction)) : direction == state.getValue(FACING)))
+        if (state != newState)
+        {
+            updateNetwork(level, pos, true);
+        }
+        else if (state.getValue(getFluidProperty()).getFluid() == Fluids.EMPTY ? direction.getAxis().getPlane() == Direction.Plane.HORIZONTAL && state.getValue(DirectionPropertyBlock.getProperty(direction)) : direction == state.getValue(FACING))
         {
-            level.scheduleTick(pos, this, LONG_TICK_DELAY);
+            updateNetwork(level, pos, false);
         }
         return newState;
     }
@@ -206,7 +195,7 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
         final boolean result = IFluidLoggable.super.placeLiquid(level, pos, state, fluidStateIn);
         if (result)
         {
-            level.scheduleTick(pos, this, SHORT_TICK_DELAY);
+            updateNetwork(level, pos, false);
         }
         return result;
     }
@@ -216,7 +205,7 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
     {
         if (state.getValue(getFluidProperty()).getFluid() != Fluids.EMPTY)
         {
-            level.scheduleTick(pos, this, LONG_TICK_DELAY);
+            updateNetwork(level, pos, false);
         }
         return IFluidLoggable.super.pickupBlock(level, pos, state);
     }
@@ -238,91 +227,27 @@ public class AqueductBlock extends HorizontalDirectionalBlock implements IFluidL
     @SuppressWarnings("deprecation")
     public void tick(BlockState state, ServerLevel level, BlockPos pos, RandomSource random)
     {
-        // First, if we have a fluid, we have to check if this fluid is still valid
-        final Direction sourceDirection = state.getValue(FACING);
-        final FluidProperty.FluidKey sourceFluid = state.getValue(getFluidProperty());
+        // Ticks are only scheduled where there is no network, such as during world generation, or by older versions
+        updateNetwork(level, pos, false);
+    }
 
-        if (sourceFluid.getFluid() != Fluids.EMPTY)
+    /**
+     * Marks the network containing this aqueduct to be updated, which happens for all changed networks at once, at the start of the next tick.
+     * Outside of a level, such as during world generation, a tick is scheduled instead, so the network is updated once the chunk has been loaded.
+     */
+    private void updateNetwork(LevelAccessor level, BlockPos pos, boolean topologyChanged)
+    {
+        if (level instanceof Level realLevel)
         {
-            // This aqueduct currently has a fluid, incoming from a direction. Validate that still exists
-            boolean valid = false;
-
-            // Must always be open on this side, otherwise it cannot possibly be valid
-            if (state.getValue(DirectionPropertyBlock.getProperty(sourceDirection)))
+            final AqueductNetworkManager manager = AqueductNetworkManager.get(realLevel);
+            if (manager != null)
             {
-                final BlockState sourceState = level.getBlockState(pos.relative(sourceDirection));
-                if (sourceState.getBlock() instanceof AqueductBlock)
-                {
-                    // Validate that the aqueduct is not also expecting this block as a source, and it contains the same fluid.
-                    valid = sourceState.getValue(getFluidProperty()) == sourceFluid && sourceState.getValue(FACING) != sourceDirection.getOpposite();
-                }
-                else if (isValidSource(sourceState) && sourceState.getFluidState().getType().isSame(sourceFluid.getFluid()))
-                {
-                    // Source block is valid
-                    valid = true;
-                }
-            }
-
-            // Need to check that the source has not become invalid - otherwise, we just carry on.
-            if (!valid)
-            {
-                // The source has become invalid
-                state = state.setValue(getFluidProperty(), getFluidProperty().keyFor(Fluids.EMPTY));
-
-                // Tick adjacent aqueducts at a short tick delay
-                // We need to do this before setting the block, as the latter operation may cause updateShape() -> scheduleTick()s to occur
-                // Those ticks will be at a long delay, and we want the short tick here to take priority.
-                tickAllAdjacentAqueducts(level, pos, SHORT_TICK_DELAY, sourceDirection);
-
-                level.setBlockAndUpdate(pos, state);
+                manager.markDirty(pos, topologyChanged);
             }
         }
         else
         {
-            // If the aqueduct doesn't currently have a source, and is being ticked, we want to look for one
-            boolean filled = false;
-            for (final Direction direction : Direction.Plane.HORIZONTAL)
-            {
-                // Only consider directions where this block is open
-                if (!state.getValue(DirectionPropertyBlock.getProperty(direction)))
-                {
-                    continue;
-                }
-
-                final BlockPos adjacentPos = pos.relative(direction);
-                final BlockState adjacentState = level.getBlockState(adjacentPos);
-                final Fluid adjacentFluid = adjacentState.getFluidState().getType() instanceof FlowingFluid flow ? flow.getSource() : adjacentState.getFluidState().getType();
-                if (adjacentState.getBlock() instanceof AqueductBlock)
-                {
-                    // Adjacent aqueduct - it must be open, and contain a fluid, and not pointing to this block as a source
-                    if (adjacentState.getValue(DirectionPropertyBlock.getProperty(direction.getOpposite())) && adjacentState.getValue(FACING) != direction.getOpposite() && !(adjacentState.getValue(getFluidProperty()).getFluid() == Fluids.EMPTY))
-                    {
-                        // Then, the first one we find, we can flow into this block
-                        state = state.setValue(FACING, direction)
-                            .setValue(getFluidProperty(), adjacentState.getValue(getFluidProperty()));
-                        filled = true;
-                        break;
-                    }
-                }
-                else if (isValidSource(adjacentState) && getFluidProperty().canContain(adjacentFluid))
-                {
-                    // Source blocks can always flow into an open aqueduct
-                    state = state.setValue(FACING, direction)
-                        .setValue(getFluidProperty(), getFluidProperty().keyFor(adjacentFluid));
-                    filled = true;
-                    break;
-                }
-            }
-
-            if (filled)
-            {
-                // Update this block
-                level.setBlockAndUpdate(pos, state);
-                level.scheduleTick(pos, state.getFluidState().getType(), state.getFluidState().getType().getTickDelay(level));
-
-                // If we managed to fill this aqueduct in this tick, then we want to schedule ticks for all it's neighbors
-                tickAllAdjacentAqueducts(level, pos, LONG_TICK_DELAY, state.getValue(FACING));
-            }
+            level.scheduleTick(pos, this, TICK_DELAY);
         }
     }
 
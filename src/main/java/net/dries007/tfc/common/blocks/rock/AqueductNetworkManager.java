@@ -0,0 +1,396 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.blocks.rock;
+
+import java.util.Set;
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FlowingFluid;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.common.blocks.DirectionPropertyBlock;
+import net.dries007.tfc.common.fluids.FluidProperty;
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+
+/**
+ * Every network of connected {@link AqueductBlock}s in a level, which decides which aqueducts are fed with fluid.
+ * <p>
+ * Aqueducts are connected when they are adjacent and open towards each other, and the graph of each connected network is kept once discovered. When an aqueduct, or a fluid adjacent to one, changes, its network is marked as dirty, and once per tick every dirty network is solved with a single breadth first traversal from the sources which feed it. Each aqueduct is fed from the nearest source, through the aqueduct it is facing, and any aqueduct which cannot be reached from a source is emptied.
+ * The changed aqueducts are then set all at once, so a network of any length settles within a tick, with at most one block update for each aqueduct.
+ * <p>
+ * Networks are discarded when an aqueduct is added to or removed from them, and when a chunk they border is loaded or unloaded, and are discovered again the next time they are needed.
+ * A single {@link AqueductNetworkManager} is maintained per-world, on the server only.
+ */
+public final class AqueductNetworkManager
+{
+    private static final Direction[] HORIZONTAL_DIRECTIONS = {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST}; // The order of Direction.Plane.HORIZONTAL
+
+    @Nullable
+    public static AqueductNetworkManager get(Level level)
+    {
+        return level.isClientSide ? null : level.getCapability(WorldTrackerCapability.CAPABILITY).map(WorldTracker::getAqueductManager).orElse(null);
+    }
+
+    /**
+     * @return The sides of {@code state} which are open, as a bit mask by {@link Direction#get2DDataValue()}.
+     */
+    private static int getOpenSides(BlockState state)
+    {
+        int openSides = 0;
+        for (Direction direction : HORIZONTAL_DIRECTIONS)
+        {
+            if (state.getValue(DirectionPropertyBlock.getProperty(direction)))
+            {
+                openSides |= 1 << direction.get2DDataValue();
+            }
+        }
+        return openSides;
+    }
+
+    private static boolean isOpen(int openSides, Direction direction)
+    {
+        return (openSides & (1 << direction.get2DDataValue())) != 0;
+    }
+
+    private final Long2ObjectMap<Network> networksByNode = new Long2ObjectOpenHashMap<>();
+    private final Set<Network> networks = new ReferenceLinkedOpenHashSet<>();
+    private final LongSet dirtyPositions = new LongLinkedOpenHashSet(); // Aqueducts which are not in a known network
+    private final Set<Network> dirtyNetworks = new ReferenceLinkedOpenHashSet<>();
+    private boolean applying; // Changes made while solving a network are not changes to the network
+
+    /**
+     * Called when the aqueduct at {@code pos}, or one of its neighbours, has changed.
+     *
+     * @param topologyChanged If the aqueduct was added or removed, or the sides it is open on changed, as opposed to a change of fluid in or next to it.
+     */
+    public void markDirty(BlockPos pos, boolean topologyChanged)
+    {
+        if (applying)
+        {
+            return;
+        }
+
+        final long key = pos.asLong();
+        final Network network = networksByNode.get(key);
+        if (network == null)
+        {
+            dirtyPositions.add(key);
+        }
+        else if (topologyChanged)
+        {
+            // Every aqueduct in the network needs to be visited again, as the network may have been joined to, or split into, others
+            remove(network);
+            dirtyPositions.addAll(network.nodes);
+        }
+        else
+        {
+            dirtyNetworks.add(network);
+        }
+    }
+
+    /**
+     * Discards any network which is adjacent to the chunk at {@code pos}, as aqueducts in the chunk may now be connected to, or disconnected from, it.
+     */
+    public void onChunkChanged(ChunkPos pos)
+    {
+        final int minX = pos.getMinBlockX() - 1, minZ = pos.getMinBlockZ() - 1, maxX = pos.getMaxBlockX() + 1, maxZ = pos.getMaxBlockZ() + 1;
+        networks.removeIf(network -> {
+            if (network.minX <= maxX && network.maxX >= minX && network.minZ <= maxZ && network.maxZ >= minZ)
+            {
+                removeNodes(network);
+                dirtyNetworks.remove(network);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public void tick(ServerLevel level)
+    {
+        while (!dirtyPositions.isEmpty() || !dirtyNetworks.isEmpty())
+        {
+            for (long key : dirtyPositions)
+            {
+                if (!networksByNode.containsKey(key))
+                {
+                    final Network network = discover(level, BlockPos.of(key));
+                    if (network != null)
+                    {
+                        add(network);
+                    }
+                }
+            }
+            dirtyPositions.clear();
+
+            final Network[] toSolve = dirtyNetworks.toArray(new Network[0]);
+            dirtyNetworks.clear();
+            for (Network network : toSolve)
+            {
+                if (!solve(level, network))
+                {
+                    // The network has changed without being noticed, so discover it again
+                    remove(network);
+                    dirtyPositions.addAll(network.nodes);
+                }
+            }
+        }
+    }
+
+    private void add(Network network)
+    {
+        for (int i = 0; i < network.nodes.size(); i++)
+        {
+            final Network previous = networksByNode.get(network.nodes.getLong(i));
+            if (previous != null)
+            {
+                remove(previous); // Aqueducts which were joined without the previous network noticing
+            }
+        }
+        for (int i = 0; i < network.nodes.size(); i++)
+        {
+            networksByNode.put(network.nodes.getLong(i), network);
+        }
+        networks.add(network);
+        dirtyNetworks.add(network);
+    }
+
+    private void remove(Network network)
+    {
+        networks.remove(network);
+        dirtyNetworks.remove(network);
+        removeNodes(network);
+    }
+
+    private void removeNodes(Network network)
+    {
+        for (int i = 0; i < network.nodes.size(); i++)
+        {
+            networksByNode.remove(network.nodes.getLong(i));
+        }
+    }
+
+    /**
+     * Finds every aqueduct connected to {@code start}, without loading any chunks.
+     *
+     * @return The network, or {@code null} if there is no aqueduct at {@code start}.
+     */
+    @Nullable
+    private Network discover(ServerLevel level, BlockPos start)
+    {
+        if (!level.isLoaded(start) || !(level.getBlockState(start).getBlock() instanceof AqueductBlock))
+        {
+            return null;
+        }
+
+        final Network network = new Network(start);
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        network.add(start.asLong(), getOpenSides(level.getBlockState(start)));
+
+        for (int i = 0; i < network.nodes.size(); i++)
+        {
+            final long node = network.nodes.getLong(i);
+            final int openSides = network.openSides.get(node);
+            for (Direction direction : HORIZONTAL_DIRECTIONS)
+            {
+                if (isOpen(openSides, direction))
+                {
+                    cursor.set(node).move(direction);
+                    final long adjacentNode = cursor.asLong();
+                    if (!network.openSides.containsKey(adjacentNode) && level.isLoaded(cursor))
+                    {
+                        final BlockState adjacentState = level.getBlockState(cursor);
+                        if (adjacentState.getBlock() instanceof AqueductBlock && adjacentState.getValue(DirectionPropertyBlock.getProperty(direction.getOpposite())))
+                        {
+                            network.add(adjacentNode, getOpenSides(adjacentState));
+                        }
+                    }
+                }
+            }
+        }
+        return network;
+    }
+
+    /**
+     * Finds which aqueducts in {@code network} are fed, and from where, and updates every aqueduct which has changed.
+     *
+     * @return {@code false} if the network no longer matches the level, in which case nothing was changed.
+     */
+    private boolean solve(ServerLevel level, Network network)
+    {
+        final FluidProperty property = AqueductBlock.FLUID;
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        final LongList nodes = network.nodes;
+        final Long2ObjectMap<BlockState> states = new Long2ObjectOpenHashMap<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++)
+        {
+            final long node = nodes.getLong(i);
+            final BlockState state = level.getBlockState(cursor.set(node));
+            if (!(state.getBlock() instanceof AqueductBlock) || getOpenSides(state) != network.openSides.get(node))
+            {
+                return false;
+            }
+            states.put(node, state);
+        }
+
+        // Aqueducts directly fed by a source. Each prefers the side it is already facing, if it's still fed from there, and otherwise the first side which is.
+        // Aqueducts fed through an unloaded chunk are assumed to still be fed, as whatever fed them cannot be seen.
+        final Long2ObjectMap<BlockState> fed = new Long2ObjectOpenHashMap<>();
+        LongList frontier = new LongArrayList();
+        for (int i = 0; i < nodes.size(); i++)
+        {
+            final long node = nodes.getLong(i);
+            final BlockState state = states.get(node);
+            final Direction facing = state.getValue(AqueductBlock.FACING);
+            @Nullable BlockState newState = null;
+            for (Direction direction : HORIZONTAL_DIRECTIONS)
+            {
+                if (!state.getValue(DirectionPropertyBlock.getProperty(direction)) || network.openSides.containsKey(cursor.set(node).move(direction).asLong()))
+                {
+                    continue;
+                }
+                if (!level.isLoaded(cursor))
+                {
+                    if (direction == facing && state.getValue(property).getFluid() != Fluids.EMPTY)
+                    {
+                        newState = state;
+                        break;
+                    }
+                    continue;
+                }
+
+                final BlockState adjacentState = level.getBlockState(cursor);
+                final Fluid adjacentFluid = adjacentState.getFluidState().getType() instanceof FlowingFluid flow ? flow.getSource() : adjacentState.getFluidState().getType();
+                if (!(adjacentState.getBlock() instanceof AqueductBlock) && AqueductBlock.isValidSource(adjacentState) && property.canContain(adjacentFluid) && (newState == null || direction == facing))
+                {
+                    newState = state.setValue(AqueductBlock.FACING, direction).setValue(property, property.keyFor(adjacentFluid));
+                }
+            }
+            if (newState != null)
+            {
+                fed.put(node, newState);
+                frontier.add(node);
+            }
+        }
+
+        // Then, every other aqueduct is fed from an adjacent aqueduct which is closer to a source.
+        // Aqueducts at the same distance are only decided once the whole distance has been visited, so they never feed each other.
+        while (!frontier.isEmpty())
+        {
+            final LongSet nextSet = new LongLinkedOpenHashSet();
+            for (int i = 0; i < frontier.size(); i++)
+            {
+                final long node = frontier.getLong(i);
+                final int openSides = network.openSides.get(node);
+                for (Direction direction : HORIZONTAL_DIRECTIONS)
+                {
+                    if (isOpen(openSides, direction))
+                    {
+                        final long adjacentNode = cursor.set(node).move(direction).asLong();
+                        if (network.openSides.containsKey(adjacentNode) && isOpen(network.openSides.get(adjacentNode), direction.getOpposite()) && !fed.containsKey(adjacentNode))
+                        {
+                            nextSet.add(adjacentNode);
+                        }
+                    }
+                }
+            }
+
+            final LongList next = new LongArrayList(nextSet);
+            final BlockState[] nextStates = new BlockState[next.size()];
+            for (int i = 0; i < next.size(); i++)
+            {
+                final long node = next.getLong(i);
+                final BlockState state = states.get(node);
+                final Direction facing = state.getValue(AqueductBlock.FACING);
+                final int openSides = network.openSides.get(node);
+                @Nullable Direction feedDirection = null;
+                for (Direction direction : HORIZONTAL_DIRECTIONS)
+                {
+                    final long adjacentNode = cursor.set(node).move(direction).asLong();
+                    if (isOpen(openSides, direction) && fed.containsKey(adjacentNode) && isOpen(network.openSides.get(adjacentNode), direction.getOpposite()) && (feedDirection == null || direction == facing))
+                    {
+                        feedDirection = direction;
+                    }
+                }
+                assert feedDirection != null;
+                final BlockState feedState = fed.get(cursor.set(node).move(feedDirection).asLong());
+                nextStates[i] = state.setValue(AqueductBlock.FACING, feedDirection).setValue(property, feedState.getValue(property));
+            }
+            for (int i = 0; i < next.size(); i++)
+            {
+                fed.put(next.getLong(i), nextStates[i]);
+            }
+            frontier = next;
+        }
+
+        applying = true;
+        try
+        {
+            for (int i = 0; i < nodes.size(); i++)
+            {
+                final long node = nodes.getLong(i);
+                final BlockState state = states.get(node);
+                final BlockState newState = fed.getOrDefault(node, state.setValue(property, property.keyFor(Fluids.EMPTY)));
+                if (newState != state)
+                {
+                    cursor.set(node);
+                    level.setBlockAndUpdate(cursor, newState);
+
+                    final Fluid fluid = newState.getFluidState().getType();
+                    if (fluid != Fluids.EMPTY && fluid != state.getFluidState().getType())
+                    {
+                        level.scheduleTick(cursor.immutable(), fluid, fluid.getTickDelay(level));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            applying = false;
+        }
+        return true;
+    }
+
+    private static final class Network
+    {
+        final LongList nodes = new LongArrayList(); // In order of discovery
+        final Long2ByteMap openSides = new Long2ByteOpenHashMap();
+        int minX, minZ, maxX, maxZ;
+
+        Network(BlockPos start)
+        {
+            minX = maxX = start.getX();
+            minZ = maxZ = start.getZ();
+        }
+
+        void add(long node, int sides)
+        {
+            final int x = BlockPos.getX(node), z = BlockPos.getZ(node);
+            nodes.add(node);
+            openSides.put(node, (byte) sides);
+            minX = Math.min(minX, x);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxZ = Math.max(maxZ, z);
+        }
+    }
+}
@@ -44,6 +44,7 @@ import net.dries007.tfc.util.climate.ClimateModel;
 import net.dries007.tfc.util.climate.ClimateRange;
 import net.dries007.tfc.util.registry.RegistrySoilVariant;
 import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.HydrationField;
 
 public class FarmlandBlock extends Block implements ISoilBlock, HoeOverlayBlock, IForgeBlockExtension, EntityBlockExtension
 {
@@ -101,7 +102,7 @@ public class FarmlandBlock extends Block implements ISoilBlock, HoeOverlayBlock,
         }
         final ChunkData data = ChunkData.get(level, pos);
         final float rainfall = data.getRainfall(pos); // Rainfall forms a baseline, providing up to 60% hydration
-        final int waterCost = findMinCostWater(level, pos); // Nearby water contributes an additional 0 - 80% hydration based on proximity
+        final int waterCost = HydrationField.getWaterCost(level, data, pos); // Nearby water contributes an additional 0 - 80% hydration based on proximity
         return Mth.clamp((int) (60 * rainfall / ClimateModel.MAXIMUM_RAINFALL) + 20 * (5 - waterCost), 0, 100);
     }
 
@@ -110,35 +111,6 @@ public class FarmlandBlock extends Block implements ISoilBlock, HoeOverlayBlock,
         level.setBlockAndUpdate(pos, pushEntitiesUp(state, ((FarmlandBlock) state.getBlock()).getDirt(), level, pos));
     }
 
-    /**
-     * @return A value in [1, 5]
-     */
-    private static int findMinCostWater(LevelAccessor level, BlockPos pos)
-    {
-        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
-
-        int minCostWater = 5;
-        for (int dx = -4; dx <= 4; dx++)
-        {
-            for (int dz = -4; dz <= 4; dz++)
-            {
-                for (int dy = -1; dy <= 0; dy++)
-                {
-                    final int cost = Math.max(Math.abs(dx), Math.abs(dz)) + (-2 * dy);
-                    if (cost < minCostWater && Helpers.isFluid(level.getFluidState(cursor.setWithOffset(pos, dx, dy, dz)).getType(), TFCTags.Fluids.HYDRATING))
-                    {
-                        minCostWater = cost;
-                        if (minCostWater == 1)
-                        {
-                            return 1;
-                        }
-                    }
-                }
-            }
-        }
-        return minCostWater;
-    }
-
     private final ExtendedProperties properties;
     private final Supplier<? extends Block> dirt;
 
@@ -6,14 +6,25 @@
 
 package net.dries007.tfc.common.capabilities;
 
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
-import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.INBTSerializable;
+import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
+import net.dries007.tfc.common.capabilities.food.FoodTrait;
+import net.dries007.tfc.common.capabilities.food.INetworkFood;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.INetworkHeat;
+import net.dries007.tfc.util.calendar.Calendars;
 
 /**
  * This is a manager for capabilities that need to be synced externally, constantly.
@@ -33,15 +44,64 @@ import net.dries007.tfc.common.capabilities.heat.HeatCapability;
  * Finally, in order to avoid issues caused by other mods due to incorrectly synced item stacks (see <a href="https://github.com/TerraFirmaCraft/TerraFirmaCraft/issues/2198">TerraFirmaCraft#2198</a>), we need to write and read this data in an as unconditional method as possible.
  * This means we cannot check for empty stacks, or those that do not have a capability. In the best case, we write an additional +1 bytes per item stack (a typical item stack has ~4-6 bytes default). This is about as least-cost that we can make it (in the worst case, we write 1 + two nbt tags).
  * <p>
+ * To keep this cheap, stacks are only synced when they would appear different to the client, as decided by {@link INetworkFood#isEquivalentForSync(INetworkFood)} and {@link INetworkHeat#isEquivalentForSync(INetworkHeat)}, rather than on every container update.
+ * The common shapes of both capabilities are then written in a compact form - food traits as numeric ids, rather than strings, and heat without any tag structure - and any other shape is written as a tag, as before.
+ * <p>
  * We also use a separate capability instance - the {@link HeatCapability#NETWORK_CAPABILITY} and {@link FoodCapability#NETWORK_CAPABILITY}. This is done as to be able to access underlying capability implementations without triggering any initialization which may rely on on-thread resources, such as accessing recipes or recipe caches.
  */
 public final class ItemStackCapabilitySync
 {
+    // Formats for each capability, written before its data
+    private static final byte ABSENT = 0;
+    private static final byte TAG = 1;
+    private static final byte COMPACT = 2;
+    private static final byte ZERO = 3; // Heat only, for a temperature of zero
+
+    // Sizes of the tags written by default, for the shapes which are written in a compact form instead
+    private static final int FOOD_TAG_SIZE = 3 + 23 + 14 + 1; // Header, creation date, trait list excluding traits, and end
+    private static final int HEAT_TAG_SIZE = 3 + 16 + 11 + 1; // Header, ticks, heat, and end
+
+    private static final String FORGE_CAPS = "ForgeCaps"; // The key of serialized capabilities, as written by ItemStack#save()
+
+    private static final LongAdder SKIPPED_SYNCS = new LongAdder();
+    private static final LongAdder BYTES_WRITTEN = new LongAdder();
+    private static final LongAdder BYTES_SAVED = new LongAdder();
+    private static final AtomicLong STATISTICS_START_TICK = new AtomicLong(Long.MIN_VALUE);
+
     public static boolean hasSyncableCapability(ItemStack stack)
     {
         return stack.getCapability(FoodCapability.NETWORK_CAPABILITY).isPresent() || stack.getCapability(HeatCapability.NETWORK_CAPABILITY).isPresent();
     }
 
+    /**
+     * Replaces {@link ItemStack#equals(ItemStack, boolean)} when deciding if a slot in a container needs to be synced. Must be called on the server thread.
+     *
+     * @param remoteStack A copy of the stack as it was last synced to the client.
+     * @return {@code true} if the client's copy of {@code stack} is still accurate, and it does not need to be synced.
+     */
+    public static boolean isEquivalentForSync(ItemStack stack, ItemStack remoteStack, boolean limitTags)
+    {
+        if (!hasSyncableCapability(stack))
+        {
+            return stack.equals(remoteStack, limitTags);
+        }
+
+        // Food and heat are compared by what the client would observe, as their serialized form may change when nothing visible has
+        // ItemStack.isSameItemSameTags() cannot be used, as Forge patches it to compare all serialized capabilities, including ours
+        // Comparing the entire tag is stricter than limitTags, which only compares the share tag, and so at worst causes an extra sync
+        final boolean equivalent = stack.getCount() == remoteStack.getCount()
+            && stack.is(remoteStack.getItem())
+            && Objects.equals(stack.getTag(), remoteStack.getTag())
+            && isFoodEquivalent(stack, remoteStack)
+            && isHeatEquivalent(stack, remoteStack)
+            && areOtherCapabilitiesEqual(stack, remoteStack);
+        if (equivalent)
+        {
+            SKIPPED_SYNCS.increment();
+        }
+        return equivalent;
+    }
+
     @SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
     public static void writeToNetwork(ItemStack stack, FriendlyByteBuf buffer)
     {
@@ -52,9 +112,11 @@ public final class ItemStackCapabilitySync
         {
             if (hasSyncableCapability(stack))
             {
+                final int start = buffer.writerIndex();
                 buffer.writeBoolean(true);
-                writeToNetwork(FoodCapability.NETWORK_CAPABILITY, stack, buffer);
-                writeToNetwork(HeatCapability.NETWORK_CAPABILITY, stack, buffer);
+                writeFood(stack.getCapability(FoodCapability.NETWORK_CAPABILITY).map(INBTSerializable::serializeNBT).orElse(null), buffer);
+                writeHeat(stack.getCapability(HeatCapability.NETWORK_CAPABILITY).map(INBTSerializable::serializeNBT).orElse(null), buffer);
+                recordWrite(buffer.writerIndex() - start, 0);
             }
             else
             {
@@ -67,24 +129,240 @@ public final class ItemStackCapabilitySync
     {
         if (buffer.readBoolean())
         {
-            readFromNetwork(FoodCapability.NETWORK_CAPABILITY, stack, buffer);
-            readFromNetwork(HeatCapability.NETWORK_CAPABILITY, stack, buffer);
+            final CompoundTag foodTag = readFood(buffer);
+            if (foodTag != null)
+            {
+                stack.getCapability(FoodCapability.NETWORK_CAPABILITY).ifPresent(cap -> cap.deserializeNBT(foodTag));
+            }
+
+            final CompoundTag heatTag = readHeat(buffer);
+            if (heatTag != null)
+            {
+                stack.getCapability(HeatCapability.NETWORK_CAPABILITY).ifPresent(cap -> cap.deserializeNBT(heatTag));
+            }
+        }
+    }
+
+    /**
+     * @return The number of container slot syncs which were skipped, as the client's copy was still accurate.
+     */
+    public static long skippedSyncs()
+    {
+        return SKIPPED_SYNCS.sum();
+    }
+
+    /**
+     * @return The number of bytes written for food and heat capabilities.
+     */
+    public static long bytesWritten()
+    {
+        return BYTES_WRITTEN.sum();
+    }
+
+    /**
+     * @return The number of bytes saved by writing food and heat capabilities in a compact form, compared to writing them as tags. This does not include syncs which were skipped entirely.
+     */
+    public static long bytesSaved()
+    {
+        return BYTES_SAVED.sum();
+    }
+
+    /**
+     * @return The average of {@link #bytesSaved()} per server tick, since the first write, or the last call to {@link #resetStatistics()}.
+     */
+    public static double bytesSavedPerTick()
+    {
+        final long start = STATISTICS_START_TICK.get();
+        return start == Long.MIN_VALUE ? 0 : (double) bytesSaved() / Math.max(1, Calendars.SERVER.getTicks() - start);
+    }
+
+    public static void resetStatistics()
+    {
+        SKIPPED_SYNCS.reset();
+        BYTES_WRITTEN.reset();
+        BYTES_SAVED.reset();
+        STATISTICS_START_TICK.set(Long.MIN_VALUE);
+    }
+
+    private static boolean isFoodEquivalent(ItemStack stack, ItemStack remoteStack)
+    {
+        final INetworkFood food = stack.getCapability(FoodCapability.NETWORK_CAPABILITY).resolve().orElse(null);
+        final INetworkFood remoteFood = remoteStack.getCapability(FoodCapability.NETWORK_CAPABILITY).resolve().orElse(null);
+        return food == null ? remoteFood == null : remoteFood != null && food.isEquivalentForSync(remoteFood);
+    }
+
+    private static boolean isHeatEquivalent(ItemStack stack, ItemStack remoteStack)
+    {
+        final INetworkHeat heat = stack.getCapability(HeatCapability.NETWORK_CAPABILITY).resolve().orElse(null);
+        final INetworkHeat remoteHeat = remoteStack.getCapability(HeatCapability.NETWORK_CAPABILITY).resolve().orElse(null);
+        return heat == null ? remoteHeat == null : remoteHeat != null && heat.isEquivalentForSync(remoteHeat);
+    }
+
+    /**
+     * Any capabilities other than food and heat are compared by their serialized form, as Forge would, so a change to one always causes a sync.
+     */
+    private static boolean areOtherCapabilitiesEqual(ItemStack stack, ItemStack remoteStack)
+    {
+        return serializeOtherCapabilities(stack).equals(serializeOtherCapabilities(remoteStack));
+    }
+
+    /**
+     * Food and heat may be serialized under their own key, or under the key of an item's own capability provider which delegates to them, so they are removed by value.
+     */
+    private static CompoundTag serializeOtherCapabilities(ItemStack stack)
+    {
+        final CompoundTag caps = stack.serializeNBT().getCompound(FORGE_CAPS);
+        final CompoundTag food = stack.getCapability(FoodCapability.NETWORK_CAPABILITY).map(INBTSerializable::serializeNBT).orElse(null);
+        final CompoundTag heat = stack.getCapability(HeatCapability.NETWORK_CAPABILITY).map(INBTSerializable::serializeNBT).orElse(null);
+        caps.getAllKeys().removeIf(key ->
+        {
+            final Tag tag = caps.get(key);
+            return tag != null && (tag.equals(food) || tag.equals(heat));
+        });
+        return caps;
+    }
+
+    /**
+     * Food is written in a compact form if it has only a creation date and traits, as all non-dynamic food does.
+     */
+    private static void writeFood(@Nullable CompoundTag tag, FriendlyByteBuf buffer)
+    {
+        if (tag == null)
+        {
+            buffer.writeByte(ABSENT);
+            return;
+        }
+
+        final int[] traitIds = tag.size() == 2 && tag.contains("creationDate", Tag.TAG_LONG) && tag.get("traits") instanceof ListTag traits ? getTraitNetworkIds(traits) : null;
+        if (traitIds != null)
+        {
+            int tagSize = FOOD_TAG_SIZE;
+            for (Tag trait : tag.getList("traits", Tag.TAG_STRING))
+            {
+                tagSize += 2 + trait.getAsString().length(); // Trait ids contain only ASCII characters
+            }
+
+            final int start = buffer.writerIndex();
+            buffer.writeByte(COMPACT);
+            buffer.writeVarLong(tag.getLong("creationDate"));
+            buffer.writeVarIntArray(traitIds);
+            recordWrite(0, tagSize - (buffer.writerIndex() - start));
+            return;
         }
+
+        buffer.writeByte(TAG);
+        buffer.writeNbt(tag);
     }
 
-    private static void writeToNetwork(Capability<? extends INBTSerializable<CompoundTag>> capability, ItemStack stack, FriendlyByteBuf buffer)
+    @Nullable
+    private static CompoundTag readFood(FriendlyByteBuf buffer)
     {
-        buffer.writeNbt(stack.getCapability(capability)
-            .map(INBTSerializable::serializeNBT)
-            .orElse(null));
+        return switch (buffer.readByte())
+            {
+                case ABSENT -> null;
+                case COMPACT -> {
+                    final CompoundTag tag = new CompoundTag();
+                    final ListTag traits = new ListTag();
+                    tag.putLong("creationDate", buffer.readVarLong());
+                    for (int id : buffer.readVarIntArray())
+                    {
+                        final FoodTrait trait = FoodTrait.byNetworkId(id);
+                        if (trait != null)
+                        {
+                            traits.add(StringTag.valueOf(FoodTrait.getId(trait).toString()));
+                        }
+                    }
+                    tag.put("traits", traits);
+                    yield tag;
+                }
+                default -> buffer.readNbt();
+            };
+    }
+
+    /**
+     * @return The network id of each trait in {@code traits}, or {@code null} if any are not the id of a known trait.
+     */
+    private static int @Nullable [] getTraitNetworkIds(ListTag traits)
+    {
+        if (!traits.isEmpty() && traits.getElementType() != Tag.TAG_STRING)
+        {
+            return null;
+        }
+
+        final int[] ids = new int[traits.size()];
+        for (int i = 0; i < ids.length; i++)
+        {
+            final ResourceLocation id = ResourceLocation.tryParse(traits.getString(i));
+            final FoodTrait trait = id == null ? null : FoodTrait.getTrait(id);
+            if (trait == null)
+            {
+                return null;
+            }
+            ids[i] = FoodTrait.getNetworkId(trait);
+        }
+        return ids;
     }
 
-    private static void readFromNetwork(Capability<? extends INBTSerializable<CompoundTag>> capability, ItemStack stack, FriendlyByteBuf buffer)
+    /**
+     * Heat is written in a compact form if it has only a temperature and the tick it was last updated, as all heat does, and as a single byte if the temperature is zero.
+     */
+    private static void writeHeat(@Nullable CompoundTag tag, FriendlyByteBuf buffer)
     {
-        final CompoundTag tag = buffer.readNbt();
-        if (tag != null)
+        if (tag == null)
+        {
+            buffer.writeByte(ABSENT);
+        }
+        else if (tag.size() == 2 && tag.contains("heat", Tag.TAG_FLOAT) && tag.contains("ticks", Tag.TAG_LONG))
+        {
+            final int start = buffer.writerIndex();
+            final float heat = tag.getFloat("heat");
+            final long ticks = tag.getLong("ticks");
+            if (heat == 0 && ticks == 0)
+            {
+                buffer.writeByte(ZERO);
+            }
+            else
+            {
+                buffer.writeByte(COMPACT);
+                buffer.writeFloat(heat);
+                buffer.writeVarLong(ticks);
+            }
+            recordWrite(0, HEAT_TAG_SIZE - (buffer.writerIndex() - start));
+        }
+        else
         {
-            stack.getCapability(capability).ifPresent(cap -> cap.deserializeNBT(tag));
+            buffer.writeByte(TAG);
+            buffer.writeNbt(tag);
         }
     }
+
+    @Nullable
+    private static CompoundTag readHeat(FriendlyByteBuf buffer)
+    {
+        return switch (buffer.readByte())
+            {
+                case ABSENT -> null;
+                case ZERO -> heatTag(0, 0);
+                case COMPACT -> {
+                    final float heat = buffer.readFloat();
+                    yield heatTag(heat, buffer.readVarLong());
+                }
+                default -> buffer.readNbt();
+            };
+    }
+
+    private static CompoundTag heatTag(float heat, long ticks)
+    {
+        final CompoundTag tag = new CompoundTag();
+        tag.putLong("ticks", ticks);
+        tag.putFloat("heat", heat);
+        return tag;
+    }
+
+    private static void recordWrite(int bytesWritten, int bytesSaved)
+    {
+        BYTES_WRITTEN.add(bytesWritten);
+        BYTES_SAVED.add(bytesSaved);
+        STATISTICS_START_TICK.compareAndSet(Long.MIN_VALUE, Calendars.SERVER.getTicks());
+    }
 }
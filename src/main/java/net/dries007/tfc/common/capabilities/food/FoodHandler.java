@@ -214,6 +214,17 @@ public class FoodHandler implements ICapabilitySerializable<CompoundTag>, IFood
         creationDate = nbt.contains("creationDate") ? nbt.getLong("creationDate") : UNKNOWN_CREATION_DATE;
     }
 
+    @Override
+    public boolean isEquivalentForSync(INetworkFood other)
+    {
+        if (!isDynamic() && other.getClass() == getClass())
+        {
+            final FoodHandler otherFood = (FoodHandler) other;
+            return getCreationDate() == otherFood.getCreationDate() && foodTraits.equals(otherFood.foodTraits);
+        }
+        return IFood.super.isEquivalentForSync(other);
+    }
+
     /**
      * This marks if the food data should be serialized. For normal food items, it isn't, because all values are provided on construction via CapabilityFood. Only mark this if food data will change per item stack
      */
@@ -6,6 +6,7 @@
 
 package net.dries007.tfc.common.capabilities.food;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -22,6 +23,7 @@ import net.minecraft.world.item.ItemStack;
 public class FoodTrait
 {
     private static final BiMap<ResourceLocation, FoodTrait> REGISTRY = HashBiMap.create();
+    @Nullable private static volatile List<FoodTrait> NETWORK_IDS; // Sorted by id, so both sides agree on the order, as traits are registered in parallel
 
     /**
      * Register a food trait.
@@ -34,6 +36,7 @@ public class FoodTrait
             throw new IllegalArgumentException("Duplicate key: " + id);
         }
         REGISTRY.put(id, trait);
+        NETWORK_IDS = null;
         return trait;
     }
 
@@ -53,6 +56,39 @@ public class FoodTrait
         return REGISTRY.inverse().get(trait);
     }
 
+    /**
+     * @return A compact id for {@code trait}, which is the same on both logical sides, as long as both register the same traits.
+     */
+    public static int getNetworkId(FoodTrait trait)
+    {
+        return getNetworkIds().indexOf(trait);
+    }
+
+    @Nullable
+    public static FoodTrait byNetworkId(int id)
+    {
+        final List<FoodTrait> ids = getNetworkIds();
+        return id >= 0 && id < ids.size() ? ids.get(id) : null;
+    }
+
+    private static List<FoodTrait> getNetworkIds()
+    {
+        List<FoodTrait> ids = NETWORK_IDS;
+        if (ids == null)
+        {
+            synchronized (FoodTrait.class)
+            {
+                ids = REGISTRY.keySet()
+                    .stream()
+                    .sorted(Comparator.naturalOrder())
+                    .map(REGISTRY::get)
+                    .toList();
+                NETWORK_IDS = ids;
+            }
+        }
+        return ids;
+    }
+
     private final Supplier<Float> decayModifier;
     @Nullable private final String translationKey;
 
@@ -29,6 +29,21 @@ public interface IHeat extends INetworkHeat
      */
     float getTemperature();
 
+    /**
+     * Heat is compared by the temperature which would be observed now, rather than the values that would be serialized, as those change every tick while being heated.
+     * Temperatures within one degree of each other are considered the same, which bounds how far a client's temperature can drift before it is synced again.
+     */
+    @Override
+    default boolean isEquivalentForSync(INetworkHeat other)
+    {
+        if (other instanceof IHeat otherHeat)
+        {
+            final float temperature = getTemperature(), otherTemperature = otherHeat.getTemperature();
+            return (temperature > 0) == (otherTemperature > 0) && Math.abs(temperature - otherTemperature) < 1f;
+        }
+        return INetworkHeat.super.isEquivalentForSync(other);
+    }
+
     /**
      * Sets the temperature. Used for anything that modifies the temperature.
      * <p>
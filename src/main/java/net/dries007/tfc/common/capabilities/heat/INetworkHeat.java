@@ -13,4 +13,15 @@ import net.minecraftforge.common.util.INBTSerializable;
  * This is a thin supertype of {@link IHeat} with a single purpose: provide access to the underlying {@link IHeat} from a network thread, without triggering any state change or initialization.
  * This is a necessary distinction for capabilities that have initialization which must be performed on-thread, as we read this data from network off-thread, which may lead to odd behavior.
  */
-public interface INetworkHeat extends INBTSerializable<CompoundTag> {}
+public interface INetworkHeat extends INBTSerializable<CompoundTag>
+{
+    /**
+     * Used to skip syncing a stack to a client which was last sent {@code other}. This is only called on the logical server, on the server thread.
+     *
+     * @return {@code true} if this would appear the same as {@code other} to a client.
+     */
+    default boolean isEquivalentForSync(INetworkHeat other)
+    {
+        return serializeNBT().equals(other.serializeNBT());
+    }
+}
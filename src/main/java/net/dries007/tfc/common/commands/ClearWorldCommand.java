@@ -25,9 +25,10 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.levelgen.feature.ConfiguredFeature;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraftforge.server.command.EnumArgument;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
@@ -35,6 +36,7 @@ import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import net.dries007.tfc.common.blocks.TFCBlocks;
 import net.dries007.tfc.common.blocks.rock.Rock;
 import net.dries007.tfc.common.blocks.soil.SoilBlockType;
+import net.dries007.tfc.util.BlockScanner;
 import net.dries007.tfc.world.feature.vein.IVeinConfig;
 import net.dries007.tfc.world.feature.vein.VeinFeature;
 
@@ -62,31 +64,18 @@ public final class ClearWorldCommand
         final Level level = source.getLevel();
         final BlockPos center = BlockPos.containing(source.getPosition());
         final BlockState air = Blocks.AIR.defaultBlockState();
+        final BoundingBox box = new BoundingBox(center.getX() - radius, level.getMinBuildHeight(), center.getZ() - radius, center.getX() + radius, level.getMaxBuildHeight() - 1, center.getZ() + radius);
 
-        final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
         final Predicate<BlockState> predicate = preset.make(source.getServer());
-        final int minY = level.getMinBuildHeight();
+        final MutableInt blocksRemoved = new MutableInt(0);
 
-        int blocksRemoved = 0;
+        // Sections above the surface contain only air, and so are skipped without being scanned
+        BlockScanner.forEach(level, box, state -> !state.isAir() && predicate.test(state), (pos, state) -> {
+            level.setBlock(pos, air, 2 | 16);
+            blocksRemoved.increment();
+        });
 
-        for (int x = -radius; x <= radius; x++)
-        {
-            for (int z = -radius; z <= radius; z++)
-            {
-                final int height = level.getHeight(Heightmap.Types.WORLD_SURFACE, center.getX() + x, center.getZ() + z);
-                for (int y = minY; y < height; y++)
-                {
-                    mutablePos.set(center).move(x, 0, z).setY(y);
-                    BlockState state = level.getBlockState(mutablePos);
-                    if (!state.isAir() && predicate.test(state))
-                    {
-                        level.setBlock(mutablePos, air, 2 | 16);
-                        blocksRemoved++;
-                    }
-                }
-            }
-        }
-        final int finalBlocksRemoved = blocksRemoved;
+        final int finalBlocksRemoved = blocksRemoved.intValue();
         source.sendSuccess(() -> Component.translatable(DONE, finalBlocksRemoved), true);
         return Command.SINGLE_SUCCESS;
     }
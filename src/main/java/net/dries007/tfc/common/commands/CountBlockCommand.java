@@ -6,8 +6,6 @@
 
 package net.dries007.tfc.common.commands;
 
-import java.util.function.Predicate;
-
 import net.minecraft.commands.CommandBuildContext;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -15,13 +13,17 @@ import net.minecraft.commands.arguments.blocks.BlockPredicateArgument;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
 import net.minecraft.world.level.block.state.BlockState;
 
 import net.minecraft.world.level.block.state.pattern.BlockInWorld;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.dries007.tfc.util.BlockScanner;
 
 public final class CountBlockCommand
 {
@@ -32,38 +34,63 @@ public final class CountBlockCommand
         return Commands.literal("count")
             .requires(source -> source.hasPermission(2))
             .then(Commands.argument("radius", IntegerArgumentType.integer(1, 250))
-                .then(Commands.argument("block", BlockPredicateArgument.blockPredicate(cmdContext)))
-                    .executes(context -> countBlock(context.getSource(), IntegerArgumentType.getInteger(context, "radius"), BlockPredicateArgument.getBlockPredicate(context, "block")
-                    )
+                .then(Commands.argument("block", BlockPredicateArgument.blockPredicate(cmdContext))
+                    .executes(context -> countBlock(context.getSource(), IntegerArgumentType.getInteger(context, "radius"), BlockPredicateArgument.getBlockPredicate(context, "block")))
                 )
             );
     }
 
-    private static int countBlock(CommandSourceStack source, int radius, Predicate<BlockInWorld> block)
+    private static int countBlock(CommandSourceStack source, int radius, BlockPredicateArgument.Result block)
     {
         final Level level = source.getLevel();
         final BlockPos center = BlockPos.containing(source.getPosition());
+        final BoundingBox box = new BoundingBox(center.getX() - radius, level.getMinBuildHeight(), center.getZ() - radius, center.getX() + radius, level.getMaxBuildHeight() - 1, center.getZ() + radius);
 
-        final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
-
-        int found = 0;
-        for (int x = -radius; x <= radius; x++)
+        final int found;
+        if (block.requiresNbt())
         {
-            for (int z = -radius; z <= radius; z++)
-            {
-                for (int y = level.getMinBuildHeight(); y < level.getMaxBuildHeight(); y++)
+            // Block entity data can only be tested in the level, so every block needs to be visited
+            final MutableInt count = new MutableInt(0);
+            BlockScanner.forEach(level, box, state -> true, (pos, state) -> {
+                if (block.test(new BlockInWorld(level, pos, true)))
                 {
-                    mutablePos.set(center).move(x, 0, z).setY(y);
-                    final BlockState state = level.getBlockState(mutablePos);
-                    if (block.test(new BlockInWorld(level, mutablePos, true)))
-                    {
-                        found++;
-                    }
+                    count.increment();
                 }
+            });
+            found = count.intValue();
+        }
+        else
+        {
+            // Otherwise, the predicate only depends on the state, so it can be tested against each section's palette
+            int count = 0;
+            for (int n : BlockScanner.count(level, box, state -> block.test(new KnownState(level, state)), BlockState::getBlock).values())
+            {
+                count += n;
             }
+            found = count;
         }
-        int finalFound = found;
-        source.sendSuccess(() -> Component.translatable(DONE, finalFound, block.toString()), true);
+
+        source.sendSuccess(() -> Component.translatable(DONE, found, block.toString()), true);
         return Command.SINGLE_SUCCESS;
     }
+
+    /**
+     * A block with a known state, for testing predicates which do not read anything else from the level.
+     */
+    private static class KnownState extends BlockInWorld
+    {
+        private final BlockState state;
+
+        KnownState(LevelReader level, BlockState state)
+        {
+            super(level, BlockPos.ZERO, false);
+            this.state = state;
+        }
+
+        @Override
+        public BlockState getState()
+        {
+            return state;
+        }
+    }
 }
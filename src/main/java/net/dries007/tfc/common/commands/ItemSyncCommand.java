@@ -0,0 +1,49 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.commands;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.dries007.tfc.common.capabilities.ItemStackCapabilitySync;
+
+public final class ItemSyncCommand
+{
+    private static final String QUERY = "tfc.commands.itemsync.query";
+    private static final String RESET = "tfc.commands.itemsync.reset";
+
+    public static LiteralArgumentBuilder<CommandSourceStack> create()
+    {
+        return Commands.literal("itemsync").requires(source -> source.hasPermission(2))
+            .then(Commands.literal("query")
+                .executes(cmd -> query(cmd.getSource()))
+            )
+            .then(Commands.literal("reset")
+                .executes(cmd -> reset(cmd.getSource()))
+            );
+    }
+
+    private static int query(CommandSourceStack source)
+    {
+        final long skippedSyncs = ItemStackCapabilitySync.skippedSyncs();
+        final long bytesWritten = ItemStackCapabilitySync.bytesWritten();
+        final long bytesSaved = ItemStackCapabilitySync.bytesSaved();
+        final String bytesSavedPerTick = String.format("%.2f", ItemStackCapabilitySync.bytesSavedPerTick());
+        source.sendSuccess(() -> Component.translatable(QUERY, skippedSyncs, bytesWritten, bytesSaved, bytesSavedPerTick), false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int reset(CommandSourceStack source)
+    {
+        ItemStackCapabilitySync.resetStatistics();
+        source.sendSuccess(() -> Component.translatable(RESET), true);
+        return Command.SINGLE_SUCCESS;
+    }
+}
@@ -6,6 +6,7 @@
 
 package net.dries007.tfc.common.commands;
 
+import java.util.List;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
@@ -17,11 +18,15 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.items.PropickItem;
 import net.dries007.tfc.common.items.ProspectResult;
+import net.dries007.tfc.util.BlockScanner;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.feature.vein.VeinFeature;
 
 public class PropickCommand
 {
@@ -32,6 +37,9 @@ public class PropickCommand
             .then(Commands.literal("scan")
                 .executes(cmd -> scan(cmd.getSource()))
             )
+            .then(Commands.literal("veins")
+                .executes(cmd -> veins(cmd.getSource()))
+            )
             .then(Commands.literal("clearworld")
                 .executes(cmd -> clearWorld(cmd.getSource()))
             );
@@ -54,30 +62,43 @@ public class PropickCommand
         return Command.SINGLE_SUCCESS;
     }
 
-    public static int clearWorld(CommandSourceStack source)
+    public static int veins(CommandSourceStack source)
     {
-        final ServerLevel level = source.getLevel();
-        final BlockPos center = BlockPos.containing(source.getPosition());
-        final int radius = PropickItem.RADIUS;
-        final BlockState air = Blocks.AIR.defaultBlockState();;
-        int found = 0;
-        int cleared = 0;
-        for (BlockPos cursor : BlockPos.betweenClosed(center.getX() - radius, center.getY() - radius, center.getZ() - radius, center.getX() + radius, center.getY() + radius, center.getZ() + radius))
+        final List<VeinFeature.Located> found = VeinFeature.findVeins(source.getLevel(), scanBox(source));
+        if (found.isEmpty())
         {
-            final BlockState state = level.getBlockState(cursor);
-            if (!Helpers.isBlock(state, TFCTags.Blocks.PROSPECTABLE))
-            {
-                level.setBlock(cursor, air, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
-                cleared++;
-            }
-            else
+            source.sendSuccess(() -> ProspectResult.NOTHING.getText(Blocks.AIR), true);
+        }
+        else
+        {
+            for (VeinFeature.Located vein : found)
             {
-                found++;
+                source.sendSuccess(() -> Component.translatable("tfc.commands.propick.found_vein", vein.id().toString(), vein.vein().pos().toShortString()), true);
             }
         }
-        final int finalFound = found;
-        final int finalCleared = cleared;
-        source.sendSuccess(() -> Component.translatable("tfc.commands.propick.cleared", finalFound, finalCleared), true);
         return Command.SINGLE_SUCCESS;
     }
+
+    public static int clearWorld(CommandSourceStack source)
+    {
+        final ServerLevel level = source.getLevel();
+        final BoundingBox box = scanBox(source);
+        final BlockState air = Blocks.AIR.defaultBlockState();
+        final MutableInt cleared = new MutableInt(0);
+        final int found = BlockScanner.count(level, box, state -> Helpers.isBlock(state, TFCTags.Blocks.PROSPECTABLE), state -> Boolean.TRUE).getInt(Boolean.TRUE);
+
+        BlockScanner.forEach(level, box, state -> !state.isAir() && !Helpers.isBlock(state, TFCTags.Blocks.PROSPECTABLE), (cursor, state) -> {
+            level.setBlock(cursor, air, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
+            cleared.increment();
+        });
+        source.sendSuccess(() -> Component.translatable("tfc.commands.propick.cleared", found, cleared.intValue()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static BoundingBox scanBox(CommandSourceStack source)
+    {
+        final BlockPos center = BlockPos.containing(source.getPosition());
+        final int radius = PropickItem.RADIUS;
+        return BoundingBox.fromCorners(center.offset(-radius, -radius, -radius), center.offset(radius, radius, radius));
+    }
 }
@@ -28,6 +28,7 @@ public final class TFCCommands
             .then(ClearWorldCommand.create())
             .then(ClimateUpdateCommand.create())
             .then(HeatCommand.create())
+            .then(ItemSyncCommand.create())
             .then(PlayerCommand.create())
             .then(TreeCommand.create())
             .then(CountBlockCommand.create(context))
@@ -0,0 +1,166 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.entities.ai.predator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+
+/**
+ * An index of every {@link PackPredator} in a level, used to find the alpha of each pack without searching for nearby entities.
+ * <p>
+ * Predators are grouped by type, into cubic cells of {@link #CELL_SIZE} blocks, and each cell tracks its leader - the living adult with the highest respect. A predator's pack is every predator of the same type in the cells surrounding its own, so the alpha is found from at most 27 leaders.
+ * Leaders are only recomputed when a member of their cell joins, leaves, or changes respect or age, which is tracked by {@link PackPredator} itself.
+ * <p>
+ * A single {@link PackIndex} is maintained per-world, on the server only.
+ */
+public final class PackIndex
+{
+    public static final int CELL_SIZE = 32; // The distance at which pack predators are aware of each other
+    private static final int CELL_BITS = 5;
+
+    @Nullable
+    public static PackIndex get(Level level)
+    {
+        return level.isClientSide ? null : level.getCapability(WorldTrackerCapability.CAPABILITY).map(WorldTracker::getPackIndex).orElse(null);
+    }
+
+    public static long cellKey(BlockPos pos)
+    {
+        return BlockPos.asLong(pos.getX() >> CELL_BITS, pos.getY() >> CELL_BITS, pos.getZ() >> CELL_BITS);
+    }
+
+    private final Map<EntityType<?>, Long2ObjectMap<Cell>> cellsByType = new IdentityHashMap<>();
+
+    public void add(PackPredator predator, long cellKey)
+    {
+        cellsByType.computeIfAbsent(predator.getType(), key -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(cellKey, key -> new Cell())
+            .add(predator);
+    }
+
+    public void remove(PackPredator predator, long cellKey)
+    {
+        final Long2ObjectMap<Cell> cells = cellsByType.get(predator.getType());
+        if (cells != null)
+        {
+            final Cell cell = cells.get(cellKey);
+            if (cell != null && cell.remove(predator) && cell.members.isEmpty())
+            {
+                cells.remove(cellKey);
+            }
+        }
+    }
+
+    /**
+     * Called when a predator's respect or age has changed, as either may change the leader of its cell.
+     */
+    public void update(PackPredator predator, long cellKey)
+    {
+        final Long2ObjectMap<Cell> cells = cellsByType.get(predator.getType());
+        if (cells != null)
+        {
+            final Cell cell = cells.get(cellKey);
+            if (cell != null)
+            {
+                cell.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Finds the alpha of {@code predator}'s pack. As with predators which encounter each other, if another pack member has the same respect as the current alpha, its respect is adjusted to prevent there being two alphas.
+     *
+     * @return The member with the highest respect, which may be {@code predator} itself.
+     */
+    public PackPredator getAlpha(PackPredator predator, long cellKey)
+    {
+        int maxRespect = predator.getRespect();
+        PackPredator alpha = predator;
+
+        final Long2ObjectMap<Cell> cells = cellsByType.get(predator.getType());
+        if (cells == null)
+        {
+            return alpha;
+        }
+
+        final int cellX = BlockPos.getX(cellKey), cellY = BlockPos.getY(cellKey), cellZ = BlockPos.getZ(cellKey);
+        for (int dx = -1; dx <= 1; dx++)
+        {
+            for (int dy = -1; dy <= 1; dy++)
+            {
+                for (int dz = -1; dz <= 1; dz++)
+                {
+                    final Cell cell = cells.get(BlockPos.asLong(cellX + dx, cellY + dy, cellZ + dz));
+                    final PackPredator leader = cell == null ? null : cell.leader();
+                    if (leader != null && leader != predator)
+                    {
+                        final int respect = leader.getRespect();
+                        if (respect == maxRespect)
+                        {
+                            // prevent predators having equal respect, ie two alphas
+                            leader.addRespect(respect > 0 ? -1 : 1);
+                        }
+                        if (respect > maxRespect)
+                        {
+                            maxRespect = respect;
+                            alpha = leader;
+                        }
+                    }
+                }
+            }
+        }
+        return alpha;
+    }
+
+    private static final class Cell
+    {
+        private final List<PackPredator> members = new ArrayList<>(4);
+        @Nullable private PackPredator leader;
+        private boolean dirty;
+
+        void add(PackPredator predator)
+        {
+            members.add(predator);
+            dirty = true;
+        }
+
+        boolean remove(PackPredator predator)
+        {
+            dirty = true;
+            return members.remove(predator);
+        }
+
+        @Nullable
+        PackPredator leader()
+        {
+            if (dirty || (leader != null && !leader.isAlive()))
+            {
+                leader = null;
+                for (PackPredator member : members)
+                {
+                    if (member.isAlive() && !member.isBaby() && (leader == null || member.getRespect() > leader.getRespect()))
+                    {
+                        leader = member;
+                    }
+                }
+                dirty = false;
+            }
+            return leader;
+        }
+    }
+}
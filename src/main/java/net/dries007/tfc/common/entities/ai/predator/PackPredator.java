@@ -65,6 +65,9 @@ public class PackPredator extends Predator implements Temptable
     private boolean howled;
     private long nextFeedTime = Long.MIN_VALUE;
 
+    @Nullable private PackIndex packIndex; // Only present on server, while in a level
+    private long packCell;
+
     private final boolean tamable;
 
     public PackPredator(EntityType<? extends Predator> type, Level level, boolean diurnal, TFCSounds.EntitySound sounds, boolean tamable)
@@ -119,6 +122,47 @@ public class PackPredator extends Predator implements Temptable
         entityData.define(DATA_FAMILIARITY, 0f);
     }
 
+    @Override
+    public void onSyncedDataUpdated(EntityDataAccessor<?> key)
+    {
+        super.onSyncedDataUpdated(key);
+        if (packIndex != null && (DATA_RESPECT.equals(key) || DATA_IS_BABY.equals(key)))
+        {
+            packIndex.update(this, packCell);
+        }
+    }
+
+    @Override
+    public void onAddedToWorld()
+    {
+        super.onAddedToWorld();
+        packIndex = PackIndex.get(level());
+        if (packIndex != null)
+        {
+            packCell = PackIndex.cellKey(blockPosition());
+            packIndex.add(this, packCell);
+        }
+    }
+
+    @Override
+    public void onRemovedFromWorld()
+    {
+        super.onRemovedFromWorld();
+        if (packIndex != null)
+        {
+            packIndex.remove(this, packCell);
+            packIndex = null;
+        }
+    }
+
+    /**
+     * @return The alpha of this predator's pack, which may be itself.
+     */
+    public PackPredator findAlpha()
+    {
+        return packIndex != null ? packIndex.getAlpha(this, packCell) : this;
+    }
+
     @Override
     public void addAdditionalSaveData(CompoundTag tag)
     {
@@ -181,6 +225,16 @@ public class PackPredator extends Predator implements Temptable
     public void tick()
     {
         super.tick();
+        if (packIndex != null)
+        {
+            final long cell = PackIndex.cellKey(blockPosition());
+            if (cell != packCell)
+            {
+                packIndex.remove(this, packCell);
+                packIndex.add(this, cell);
+                packCell = cell;
+            }
+        }
         final long time = level().getDayTime() % 24000;
         if (!howled && time > 18000 && time < 19000 && random.nextInt(10) == 0)
         {
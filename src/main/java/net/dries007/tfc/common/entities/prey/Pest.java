@@ -35,6 +35,7 @@ import net.dries007.tfc.common.entities.ai.PredicateMoveControl;
 import net.dries007.tfc.common.entities.ai.TFCClimberNavigation;
 import net.dries007.tfc.common.entities.ai.prey.PestAi;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.tracker.EntityPopulation;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -56,6 +57,8 @@ public class Pest extends Prey
     private static final int EAT_TIME = 200;
 
     private int dragTicks = -1;
+    @Nullable private EntityPopulation population; // Only present on server, while in a level
+    private long populationChunk;
 
     public Pest(EntityType<? extends Prey> type, Level level, TFCSounds.EntitySound sounds)
     {
@@ -63,6 +66,29 @@ public class Pest extends Prey
         moveControl = new PredicateMoveControl<>(this, p -> p.dragTicks == -1 || p.dragTicks > DRAG_TIME + EAT_TIME);
     }
 
+    @Override
+    public void onAddedToWorld()
+    {
+        super.onAddedToWorld();
+        population = EntityPopulation.get(level());
+        if (population != null)
+        {
+            populationChunk = chunkPosition().toLong();
+            population.add(EntityPopulation.PESTS, populationChunk);
+        }
+    }
+
+    @Override
+    public void onRemovedFromWorld()
+    {
+        super.onRemovedFromWorld();
+        if (population != null)
+        {
+            population.remove(EntityPopulation.PESTS, populationChunk);
+            population = null;
+        }
+    }
+
     @Override
     protected Brain.Provider<? extends Pest> brainProvider()
     {
@@ -160,6 +186,16 @@ public class Pest extends Prey
         {
             setClimbing(horizontalCollision);
         }
+        if (population != null)
+        {
+            final long chunk = chunkPosition().toLong();
+            if (chunk != populationChunk)
+            {
+                population.remove(EntityPopulation.PESTS, populationChunk);
+                population.add(EntityPopulation.PESTS, chunk);
+                populationChunk = chunk;
+            }
+        }
         if (tickCount > 20 * 60 * 3 && random.nextInt(500) == 0 && !isPersistenceRequired())
         {
             discard();
@@ -7,8 +7,6 @@
 package net.dries007.tfc.common.fluids;
 
 import java.util.function.Consumer;
-import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.particles.ParticleTypes;
@@ -56,6 +54,8 @@ public final class FluidHelpers
 {
     public static final int BUCKET_VOLUME = 1000;
 
+    private static final Direction[] HORIZONTAL_DIRECTIONS = {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST}; // The order of Direction.Plane.HORIZONTAL
+
     public static boolean canFluidExtinguishFire(Fluid fluid)
     {
         return fluid != Fluids.EMPTY && fluid.getFluidType().getTemperature() < 400; // 400 K ~ 127 C, reasonable heuristic
@@ -603,44 +603,46 @@ public final class FluidHelpers
     @SuppressWarnings("deprecation")
     public static FluidState getNewFluidWithMixing(FlowingFluid self, Level level, BlockPos pos, BlockState blockStateIn, boolean canConvertToSource, int dropOff)
     {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
         int maxAdjacentFluidAmount = 0; // The maximum height of fluids flowing into this block from the sides
         FlowingFluid maxAdjacentFluid = self;
 
-        int adjacentSourceBlocks = 0; // How many adjacent source blocks that could convert this into a source block
-        Object2IntArrayMap<FlowingFluid> adjacentSourceBlocksByFluid = new Object2IntArrayMap<>(2);
+        // Adjacent source blocks that could convert this into a source block
+        final AdjacentSources adjacentSources = new AdjacentSources();
 
-        for (Direction direction : Direction.Plane.HORIZONTAL)
+        for (int i = 0; i < HORIZONTAL_DIRECTIONS.length; i++)
         {
-            BlockPos offsetPos = pos.relative(direction);
-            BlockState offsetState = level.getBlockState(offsetPos);
-            FluidState offsetFluid = offsetState.getFluidState();
+            final Direction direction = HORIZONTAL_DIRECTIONS[i];
+            final BlockState offsetState = level.getBlockState(cursor.setWithOffset(pos, direction));
+            final FluidState offsetFluid = offsetState.getFluidState();
 
             // Look for adjacent fluids that are the same, for purposes of flow into this fluid
             // canPassThroughWall detects if a fluid state has a barrier - e.g. via a stair edge - that would prevent it from connecting to the current block.
-            if (offsetFluid.getType() instanceof FlowingFluid && ((FlowingFluidAccessor) self).invoke$canPassThroughWall(direction, level, pos, blockStateIn, offsetPos, offsetState))
+            if (offsetFluid.getType() instanceof FlowingFluid offsetFlowingFluid && ((FlowingFluidAccessor) self).invoke$canPassThroughWall(direction, level, pos, blockStateIn, cursor, offsetState))
             {
-                if (offsetFluid.isSource() && ForgeEventFactory.canCreateFluidSource(level, offsetPos, offsetState, canConvertToSource))
+                // The event is given its own position, as listeners may keep it
+                if (offsetFluid.isSource() && ForgeEventFactory.canCreateFluidSource(level, cursor.immutable(), offsetState, canConvertToSource))
                 {
-                    adjacentSourceBlocks++;
-                    adjacentSourceBlocksByFluid.mergeInt((FlowingFluid) offsetFluid.getType(), 1, Integer::sum);
+                    adjacentSources.add(offsetFlowingFluid);
                 }
                 // Also record the maximum adjacent fluid, breaking ties with the current fluid
-                if (offsetFluid.getAmount() > maxAdjacentFluidAmount || (offsetFluid.getAmount() == maxAdjacentFluidAmount && self.isSame(offsetFluid.getType())))
+                if (offsetFluid.getAmount() > maxAdjacentFluidAmount || (offsetFluid.getAmount() == maxAdjacentFluidAmount && self.isSame(offsetFlowingFluid)))
                 {
                     maxAdjacentFluidAmount = offsetFluid.getAmount();
-                    maxAdjacentFluid = (FlowingFluid) offsetFluid.getType();
+                    maxAdjacentFluid = offsetFlowingFluid;
                 }
             }
         }
 
-        if (adjacentSourceBlocks >= 2)
+        if (adjacentSources.size() >= 2)
         {
             // There are two adjacent source blocks (although potentially of different kinds) - check if the below block is also a source, or if it's a solid block
             // If true, then this block should be converted to a source block as well
-            BlockState belowState = level.getBlockState(pos.below());
-            FluidState belowFluid = belowState.getFluidState();
+            final BlockState belowState = level.getBlockState(cursor.setWithOffset(pos, Direction.DOWN));
+            final FluidState belowFluid = belowState.getFluidState();
 
-            if (belowFluid.isSource() && belowFluid.getType() instanceof FlowingFluid belowFlowingFluid && adjacentSourceBlocksByFluid.getInt(belowFluid.getType()) >= 2)
+            if (belowFluid.isSource() && belowFluid.getType() instanceof FlowingFluid belowFlowingFluid && adjacentSources.count(belowFlowingFluid) >= 2)
             {
                 // Try and create a source block of the same type as the below
                 return FlowingFluidExtension.getSourceOrDefault(level, pos, belowFlowingFluid, false);
@@ -648,16 +650,8 @@ public final class FluidHelpers
             else if (belowState.isSolid())
             {
                 // This could potentially form fluid blocks from multiple blocks. It can only override the current source if there's three adjacent equal sources, or form a source if this is the same as three adjacent sources
-                FlowingFluid maximumAdjacentSourceFluid = self;
-                int maximumAdjacentSourceBlocks = 0;
-                for (Object2IntMap.Entry<FlowingFluid> entry : adjacentSourceBlocksByFluid.object2IntEntrySet())
-                {
-                    if (entry.getIntValue() > maximumAdjacentSourceBlocks || entry.getKey() == self)
-                    {
-                        maximumAdjacentSourceBlocks = entry.getIntValue();
-                        maximumAdjacentSourceFluid = entry.getKey();
-                    }
-                }
+                final FlowingFluid maximumAdjacentSourceFluid = adjacentSources.selectMaximum(self);
+                final int maximumAdjacentSourceBlocks = adjacentSources.count(maximumAdjacentSourceFluid);
 
                 // Three adjacent (if not same), or two (if same)
                 if (maximumAdjacentSourceBlocks >= 3 || (maximumAdjacentSourceBlocks >= 2 && self.isSame(maximumAdjacentSourceFluid)))
@@ -670,12 +664,11 @@ public final class FluidHelpers
         // At this point, we haven't been able to convert into a source block
         // Check the block above to see if that is flowing downwards into this one (creating a level 8, falling, flowing block)
         // A fluid above, flowing down, will always replace an existing fluid block
-        BlockPos abovePos = pos.above();
-        BlockState aboveState = level.getBlockState(abovePos);
-        FluidState aboveFluid = aboveState.getFluidState();
-        if (!aboveFluid.isEmpty() && aboveFluid.getType() instanceof FlowingFluid && ((FlowingFluidAccessor) self).invoke$canPassThroughWall(Direction.UP, level, pos, blockStateIn, abovePos, aboveState))
+        final BlockState aboveState = level.getBlockState(cursor.setWithOffset(pos, Direction.UP));
+        final FluidState aboveFluid = aboveState.getFluidState();
+        if (!aboveFluid.isEmpty() && aboveFluid.getType() instanceof FlowingFluid aboveFlowingFluid && ((FlowingFluidAccessor) self).invoke$canPassThroughWall(Direction.UP, level, pos, blockStateIn, cursor, aboveState))
         {
-            return ((FlowingFluid) aboveFluid.getType()).getFlowing(8, true);
+            return aboveFlowingFluid.getFlowing(8, true);
         }
         else
         {
@@ -730,6 +723,83 @@ public final class FluidHelpers
         tickFluid(level, pos, state, false);
     }
 
+    /**
+     * A tally of the source blocks adjacent to a fluid, as used by {@link #getNewFluidWithMixing}. There are at most four, so these are tallied into fields rather than a map.
+     * If every adjacent source is the same fluid, which is nearly always the case, the count of that fluid is just the number of adjacent sources.
+     */
+    public static final class AdjacentSources
+    {
+        private int size = 0;
+        private boolean mixed = false;
+        @Nullable private FlowingFluid source0, source1, source2, source3;
+
+        public void add(FlowingFluid source)
+        {
+            if (size > 0 && source != source0)
+            {
+                mixed = true;
+            }
+            switch (size++)
+            {
+                case 0 -> source0 = source;
+                case 1 -> source1 = source;
+                case 2 -> source2 = source;
+                default -> source3 = source;
+            }
+        }
+
+        /**
+         * @return The number of adjacent sources, of any fluid.
+         */
+        public int size()
+        {
+            return size;
+        }
+
+        /**
+         * @return The number of adjacent sources of {@code fluid}.
+         */
+        public int count(FlowingFluid fluid)
+        {
+            if (!mixed)
+            {
+                return size > 0 && fluid == source0 ? size : 0;
+            }
+            return (source0 == fluid ? 1 : 0) + (source1 == fluid ? 1 : 0) + (source2 == fluid ? 1 : 0) + (source3 == fluid ? 1 : 0);
+        }
+
+        /**
+         * Selects the fluid which the adjacent sources could form a source of. Must only be called with at least one adjacent source.
+         * Each fluid is considered in the order it was first added, and the current fluid, {@code self}, is preferred over any added before it, or any with an equal count added after it.
+         */
+        public FlowingFluid selectMaximum(FlowingFluid self)
+        {
+            assert source0 != null;
+            if (!mixed)
+            {
+                return source0;
+            }
+
+            FlowingFluid maximumFluid = source0;
+            int maximumCount = count(source0);
+            for (int i = 1; i < size; i++)
+            {
+                final FlowingFluid fluid = i == 1 ? source1 : i == 2 ? source2 : source3;
+                if (fluid == source0 || (i > 1 && fluid == source1) || (i > 2 && fluid == source2))
+                {
+                    continue; // Already counted
+                }
+                final int count = count(fluid);
+                if (count > maximumCount || fluid == self)
+                {
+                    maximumCount = count;
+                    maximumFluid = fluid;
+                }
+            }
+            return maximumFluid;
+        }
+    }
+
     @FunctionalInterface
     public interface AfterTransfer
     {
@@ -30,16 +30,17 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.SoundType;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.network.PacketDistributor;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.TFCBlocks;
 import net.dries007.tfc.common.blocks.rock.Ore;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.network.ProspectedPacket;
+import net.dries007.tfc.util.BlockScanner;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.events.ProspectedEvent;
 
@@ -83,16 +84,7 @@ public class PropickItem extends ToolItem
 
     public static Object2IntMap<Block> scanAreaFor(Level level, BlockPos center, int radius, TagKey<Block> tag)
     {
-        final Object2IntMap<Block> results = new Object2IntOpenHashMap<>();
-        for (BlockPos cursor : BlockPos.betweenClosed(center.getX() - radius, center.getY() - radius, center.getZ() - radius, center.getX() + radius, center.getY() + radius, center.getZ() + radius))
-        {
-            final Block block = getRepresentative(level.getBlockState(cursor).getBlock());
-            if (Helpers.isBlock(block, tag))
-            {
-                results.mergeInt(block, 1, Integer::sum);
-            }
-        }
-        return results;
+        return BlockScanner.count(level, BoundingBox.fromCorners(center.offset(-radius, -radius, -radius), center.offset(radius, radius, radius)), state -> Helpers.isBlock(getRepresentative(state.getBlock()), tag), state -> getRepresentative(state.getBlock()));
     }
 
     private final float falseNegativeChance;
@@ -6,9 +6,15 @@
 
 package net.dries007.tfc.common.recipes;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -18,23 +24,69 @@ import net.minecraft.core.RegistryAccess;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
 
 import net.dries007.tfc.common.recipes.inventory.AlloyInventory;
+import net.dries007.tfc.util.Alloy;
 import net.dries007.tfc.util.DataManager;
+import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
 import net.dries007.tfc.util.Metal;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
 
 public class AlloyRecipe implements ISimpleRecipe<AlloyInventory>
 {
-    @SuppressWarnings("ConstantConditions")
-    public static Optional<AlloyRecipe> get(RecipeManager recipes, AlloyInventory inventory)
+    /**
+     * Alloy recipes, indexed by the metals an alloy must contain to match them, by id. Candidates are ordered with the most specific recipes first.
+     */
+    public static final IndirectHashCollection<Set<ResourceLocation>, AlloyRecipe> CACHE = IndirectHashCollection.create(AlloyRecipe::getValidMetals, () -> sortBySpecificity(Helpers.getRecipes(Helpers.getUnsafeRecipeManager(), TFCRecipeTypes.ALLOY).values()));
+
+    /**
+     * Recipes with more metals are more specific, followed by recipes with narrower ranges in total. Ties are broken by id, so the order is stable.
+     */
+    private static final Comparator<AlloyRecipe> BY_SPECIFICITY = Comparator.<AlloyRecipe>comparingInt(recipe -> -recipe.metals.size())
+        .thenComparingDouble(recipe -> recipe.metals.values().stream().mapToDouble(range -> range.max - range.min).sum())
+        .thenComparing(AlloyRecipe::getId);
+
+    /**
+     * @return The most specific recipe which matches {@code alloy}, using {@link #CACHE}.
+     */
+    public static Optional<AlloyRecipe> get(Alloy alloy)
     {
-        return recipes.getRecipeFor(TFCRecipeTypes.ALLOY.get(), inventory, null);
+        return get(CACHE, alloy);
+    }
+
+    /**
+     * @param cache An index of recipes, as {@link #CACHE}, with candidates in the order of {@link #sortBySpecificity(Collection)}.
+     */
+    @VisibleForTesting
+    public static Optional<AlloyRecipe> get(IndirectHashCollection<Set<ResourceLocation>, AlloyRecipe> cache, Alloy alloy)
+    {
+        final Set<ResourceLocation> metals = new HashSet<>();
+        for (Metal metal : alloy.getMetals().keySet())
+        {
+            metals.add(metal.getId());
+        }
+        for (AlloyRecipe recipe : cache.getAll(metals))
+        {
+            if (alloy.matches(recipe))
+            {
+                return Optional.of(recipe);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @VisibleForTesting
+    public static List<AlloyRecipe> sortBySpecificity(Collection<AlloyRecipe> recipes)
+    {
+        final List<AlloyRecipe> sorted = new ArrayList<>(recipes);
+        sorted.sort(BY_SPECIFICITY);
+        return sorted;
     }
 
     private final ResourceLocation id;
@@ -58,6 +110,25 @@ public class AlloyRecipe implements ISimpleRecipe<AlloyInventory>
         return result.get();
     }
 
+    /**
+     * @return The sets of metals, by id, which an alloy matching this recipe may contain. Every metal in the recipe must be present, and the result may also be present, as it is ignored when matching.
+     */
+    public Collection<Set<ResourceLocation>> getValidMetals()
+    {
+        final Set<ResourceLocation> inputs = new HashSet<>();
+        for (DataManager.Reference<Metal> metal : metals.keySet())
+        {
+            inputs.add(metal.id());
+        }
+        if (inputs.contains(result.id()))
+        {
+            return List.of(inputs);
+        }
+        final Set<ResourceLocation> inputsWithResult = new HashSet<>(inputs);
+        inputsWithResult.add(result.id());
+        return List.of(inputs, inputsWithResult);
+    }
+
     @Override
     public boolean matches(AlloyInventory wrapper, @Nullable Level level)
     {
@@ -6,6 +6,12 @@
 
 package net.dries007.tfc.common.recipes;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.minecraft.core.RegistryAccess;
@@ -15,8 +21,11 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.registries.ForgeRegistries;
@@ -28,10 +37,39 @@ import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class BarrelRecipe implements ISimpleRecipe<BarrelBlockEntity.BarrelInventory>
 {
+    public static InputKey getInputKey(BarrelBlockEntity.BarrelInventory inventory)
+    {
+        return new InputKey(inventory.getStackInSlot(BarrelBlockEntity.SLOT_ITEM).getItem(), inventory.getFluidInTank(0).getFluid());
+    }
+
+    /**
+     * Finds the first recipe which matches {@code inventory}, from the candidates indexed under {@code key}.
+     *
+     * @param lastRecipe The recipe which last matched this barrel, which is checked first, as barrels are usually re-checked with the same recipe. It is ignored if it is no longer a candidate, for instance if recipes were reloaded.
+     */
+    @Nullable
+    protected static <K, R extends BarrelRecipe> R getRecipe(IndirectHashCollection<K, R> cache, K key, BarrelBlockEntity.BarrelInventory inventory, @Nullable Level level, @Nullable R lastRecipe)
+    {
+        final Collection<R> candidates = cache.getAll(key);
+        if (lastRecipe != null && candidates.contains(lastRecipe) && lastRecipe.matches(inventory, level))
+        {
+            return lastRecipe;
+        }
+        for (R recipe : candidates)
+        {
+            if (recipe != lastRecipe && recipe.matches(inventory, level))
+            {
+                return recipe;
+            }
+        }
+        return null;
+    }
+
     private final ResourceLocation id;
 
     protected final ItemStackIngredient inputItem;
@@ -128,6 +166,32 @@ public abstract class BarrelRecipe implements ISimpleRecipe<BarrelBlockEntity.Ba
         });
     }
 
+    /**
+     * @return Every fluid which the fluid in the barrel may be, for this recipe to match.
+     */
+    public Collection<Fluid> getValidFluids()
+    {
+        return Set.copyOf(inputFluid.ingredient().fluids());
+    }
+
+    /**
+     * @return Every pair of item and fluid which the barrel may contain, for this recipe to match. A recipe without an input item only matches when there is no item in the barrel.
+     */
+    public Collection<InputKey> getValidInputKeys()
+    {
+        final Set<Item> items = inputItem.ingredient().isEmpty() ? Set.of(Items.AIR) : Arrays.stream(inputItem.ingredient().getItems()).map(ItemStack::getItem).collect(Collectors.toSet());
+        final Collection<Fluid> fluids = getValidFluids();
+        final List<InputKey> keys = new ArrayList<>(items.size() * fluids.size());
+        for (Item item : items)
+        {
+            for (Fluid fluid : fluids)
+            {
+                keys.add(new InputKey(item, fluid));
+            }
+        }
+        return keys;
+    }
+
     @Override
     public boolean matches(BarrelBlockEntity.BarrelInventory container, @Nullable Level level)
     {
@@ -176,6 +240,11 @@ public abstract class BarrelRecipe implements ISimpleRecipe<BarrelBlockEntity.Ba
         return Component.translatable("tfc.recipe.barrel." + id.getNamespace() + "." + id.getPath().replace('/', '.'));
     }
 
+    /**
+     * The item and fluid in a barrel, which barrel recipes are indexed by.
+     */
+    public record InputKey(Item item, Fluid fluid) {}
+
     public record Builder(ItemStackIngredient inputItem, FluidStackIngredient inputFluid, ItemStackProvider outputItem, FluidStack outputFluid, SoundEvent sound)
     {
         public static Builder fromJson(JsonObject json)
@@ -14,10 +14,19 @@ import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
 
 import net.dries007.tfc.common.blockentities.BarrelBlockEntity;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public class InstantBarrelRecipe extends BarrelRecipe
 {
+    public static final IndirectHashCollection<InputKey, InstantBarrelRecipe> CACHE = IndirectHashCollection.createForRecipe(BarrelRecipe::getValidInputKeys, TFCRecipeTypes.BARREL_INSTANT);
+
+    @Nullable
+    public static InstantBarrelRecipe getRecipe(BarrelBlockEntity.BarrelInventory inventory, @Nullable Level level, @Nullable InstantBarrelRecipe lastRecipe)
+    {
+        return getRecipe(CACHE, getInputKey(inventory), inventory, level, lastRecipe);
+    }
+
     public InstantBarrelRecipe(ResourceLocation id, Builder builder)
     {
         super(id, builder);
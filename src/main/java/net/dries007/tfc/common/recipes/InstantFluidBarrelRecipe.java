@@ -15,6 +15,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fluids.capability.IFluidHandlerItem;
@@ -28,11 +29,21 @@ import net.dries007.tfc.common.recipes.ingredients.ItemStackIngredient;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import net.dries007.tfc.util.JsonHelpers;
 import org.jetbrains.annotations.Nullable;
 
 public class InstantFluidBarrelRecipe extends BarrelRecipe
 {
+    // The added fluid may come from either the item or the fluid container slot, so these are only indexed by the fluid in the barrel
+    public static final IndirectHashCollection<Fluid, InstantFluidBarrelRecipe> CACHE = IndirectHashCollection.createForRecipe(BarrelRecipe::getValidFluids, TFCRecipeTypes.BARREL_INSTANT_FLUID);
+
+    @Nullable
+    public static InstantFluidBarrelRecipe getRecipe(BarrelBlockEntity.BarrelInventory inventory, @Nullable Level level, @Nullable InstantFluidBarrelRecipe lastRecipe)
+    {
+        return getRecipe(CACHE, inventory.getFluidInTank(0).getFluid(), inventory, level, lastRecipe);
+    }
+
     private final FluidStackIngredient addedFluid;
 
     public InstantFluidBarrelRecipe(ResourceLocation id, Builder builder, FluidStackIngredient addedFluid)
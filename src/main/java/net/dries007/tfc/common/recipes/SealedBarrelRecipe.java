@@ -19,9 +19,18 @@ import net.dries007.tfc.common.blockentities.BarrelBlockEntity;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 
 public class SealedBarrelRecipe extends BarrelRecipe
 {
+    public static final IndirectHashCollection<InputKey, SealedBarrelRecipe> CACHE = IndirectHashCollection.createForRecipe(BarrelRecipe::getValidInputKeys, TFCRecipeTypes.BARREL_SEALED);
+
+    @Nullable
+    public static SealedBarrelRecipe getRecipe(BarrelBlockEntity.BarrelInventory inventory, @Nullable Level level, @Nullable SealedBarrelRecipe lastRecipe)
+    {
+        return getRecipe(CACHE, getInputKey(inventory), inventory, level, lastRecipe);
+    }
+
     private final int duration;
 
     @Nullable private final ItemStackProvider onSeal;
@@ -27,6 +27,11 @@ public class CommonConfig
     public final ForgeConfigSpec.IntValue defaultMonthLength;
     public final ForgeConfigSpec.IntValue defaultCalendarStartDay;
 
+    // World Generation
+    public final ForgeConfigSpec.BooleanValue enableRegionStore;
+    public final ForgeConfigSpec.BooleanValue enableRegionPrefetching;
+    public final ForgeConfigSpec.BooleanValue buildSurfacesOnMainExecutor;
+
     // Debug
     private final ForgeConfigSpec.BooleanValue enableNetworkDebugging;
     private boolean hasLoggedNetworkDebugInfoMessage = false;
@@ -52,6 +57,21 @@ public class CommonConfig
             "The default is (5 * daysInMonth) = 40, which starts at June 1, 1000 (with the default daysInMonth = 8)"
         ).define("defaultCalendarStartDay", (5 * 8), -1, Integer.MAX_VALUE);
 
+        builder.swap("worldGeneration");
+
+        enableRegionStore = builder.comment(
+            "If enabled, TFC will save generated world generation regions (large scale information such as continents, climate, biomes, rocks and rivers) to disk under the world save, and load them instead of regenerating them.",
+            "This trades disk space (roughly 1 MB per region, where a region is ~12km across) for faster chunk generation after a restart, or when returning to previously explored areas."
+        ).define("enableRegionStore", false);
+        enableRegionPrefetching = builder.comment(
+            "If enabled, TFC will speculatively generate world generation regions adjacent to where chunks are currently being generated, on a low priority background thread.",
+            "This reduces stalls in chunk generation when players travel into new areas, at the cost of occasionally generating regions that are not needed."
+        ).define("enableRegionPrefetching", false);
+        buildSurfacesOnMainExecutor = builder.comment(
+            "If enabled, TFC will build chunk surfaces (soil, sand, gravel, etc.) on the server's main chunk executor, rather than the background world generation threads.",
+            "This is slower, as surface building will not scale with available cores, and counts towards server tick time. It should only be enabled for compatibility with mods that expect surfaces to be built on the main executor."
+        ).define("buildSurfacesOnMainExecutor", false);
+
         builder.swap("debug");
 
         enableNetworkDebugging = builder.comment(
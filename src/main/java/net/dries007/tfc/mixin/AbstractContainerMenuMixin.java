@@ -21,7 +21,7 @@ public abstract class AbstractContainerMenuMixin
     private boolean hasClientStackChangedIncludingSyncableCapabilities(ItemStack stack, ItemStack remoteStack, boolean limitTags)
     {
         // This mimics the behavior of ItemStack#equals, and so a 'false' return value means 'we need to sync this anyway'
-        // We add an additional check here in order for these two item stacks to be equal enough to not sync to client.
-        return !ItemStackCapabilitySync.hasSyncableCapability(stack) && stack.equals(remoteStack, limitTags);
+        // Stacks with syncable capabilities are compared by what the client would observe, as their serialized form changes constantly
+        return ItemStackCapabilitySync.isEquivalentForSync(stack, remoteStack, limitTags);
     }
 }
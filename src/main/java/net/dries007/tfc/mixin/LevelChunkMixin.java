@@ -0,0 +1,34 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.mixin;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import net.dries007.tfc.world.chunkdata.HydrationField;
+
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin
+{
+    /**
+     * Every change of block in a loaded chunk passes through here, regardless of the update flags used, so this is where cached hydration is kept up to date.
+     */
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void updateHydrationField(BlockPos pos, BlockState state, boolean isMoving, CallbackInfoReturnable<BlockState> cir)
+    {
+        final BlockState oldState = cir.getReturnValue();
+        if (oldState != null)
+        {
+            HydrationField.onBlockChanged(((LevelChunk) (Object) this).getLevel(), pos, oldState, state);
+        }
+    }
+}
@@ -15,11 +15,9 @@ import org.jetbrains.annotations.Nullable;
 
 import com.google.common.collect.Sets;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.world.item.crafting.RecipeManager;
 
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
-import net.dries007.tfc.common.recipes.inventory.AlloyInventory;
 
 public class Alloy implements AlloyView
 {
@@ -46,7 +44,6 @@ public class Alloy implements AlloyView
     private int totalUnits;
     private int maxUnits;
 
-    @Nullable private AlloyInventory wrapper; // Lazy, initialized on demand and cached
     @Nullable private Metal cachedResult;
 
     /**
@@ -119,7 +116,7 @@ public class Alloy implements AlloyView
     }
 
     @Override
-    public Metal getResult(RecipeManager recipes)
+    public Metal getResult()
     {
         if (cachedResult == null)
         {
@@ -129,7 +126,7 @@ public class Alloy implements AlloyView
             }
             else
             {
-                cachedResult = AlloyRecipe.get(recipes, getWrapper())
+                cachedResult = AlloyRecipe.get(this)
                     .map(AlloyRecipe::getResult)
                     .orElseGet(Metal::unknown);
             }
@@ -174,9 +171,13 @@ public class Alloy implements AlloyView
                 }
             }
             totalUnits -= removeAmount;
+
+            // Removing from every component in proportion does not change the ratios, so the result is kept, unless a component was entirely removed
+            final Metal result = resultMap.size() == metalMap.size() ? cachedResult : null;
             metalMap.clear();
             metalMap.putAll(resultMap);
             updateCaches();
+            cachedResult = result;
             return removeAmount;
         }
     }
@@ -287,15 +288,6 @@ public class Alloy implements AlloyView
         return metalMap.values().doubleStream().sum();
     }
 
-    private AlloyInventory getWrapper()
-    {
-        if (wrapper == null)
-        {
-            wrapper = new AlloyInventory(this);
-        }
-        return wrapper;
-    }
-
     private boolean matchesExactly(AlloyRecipe recipe)
     {
         final Object2DoubleMap<Metal> metals = getMetals();
@@ -0,0 +1,171 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * Scans a box of blocks in a level, one chunk section at a time.
+ * <p>
+ * Each section's palette is tested before any of its blocks, so sections which cannot contain a matching block, including empty sections, are skipped entirely. Blocks in the remaining sections are read directly from the section, rather than through the level. Sections which lie entirely within the box are counted from their packed states, without visiting each block.
+ * <p>
+ * Chunks are always obtained on the calling thread, which will load them if required, as with {@link LevelReader#getBlockState(BlockPos)}.
+ */
+public final class BlockScanner
+{
+    private static final int SECTIONS_PER_TASK = 64; // Counts over more sections than this are split across worker threads
+
+    /**
+     * Visits every block in {@code box} which matches {@code filter}. The position passed to {@code visitor} is mutable, and must be copied if it is retained.
+     * Blocks may be modified by {@code visitor}, although a block whose state is changed to one matching {@code filter} may not be visited.
+     */
+    public static void forEach(LevelReader level, BoundingBox box, Predicate<BlockState> filter, BiConsumer<BlockPos, BlockState> visitor)
+    {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (Section section : collectSections(level, box, filter))
+        {
+            section.forEach(filter, cursor, visitor);
+        }
+    }
+
+    /**
+     * Counts every block in {@code box} which matches {@code filter}, grouped by {@code key}.
+     * Both {@code filter} and {@code key} must be safe to call from any thread, as large counts are split across worker threads.
+     */
+    public static <K> Object2IntMap<K> count(LevelReader level, BoundingBox box, Predicate<BlockState> filter, Function<BlockState, K> key)
+    {
+        final List<Section> sections = collectSections(level, box, filter);
+        if (sections.size() <= SECTIONS_PER_TASK)
+        {
+            return count(sections, filter, key);
+        }
+
+        final List<CompletableFuture<Object2IntMap<K>>> tasks = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i += SECTIONS_PER_TASK)
+        {
+            final List<Section> task = sections.subList(i, Math.min(i + SECTIONS_PER_TASK, sections.size()));
+            tasks.add(CompletableFuture.supplyAsync(() -> count(task, filter, key), Util.backgroundExecutor()));
+        }
+
+        final Object2IntMap<K> counts = new Object2IntOpenHashMap<>();
+        for (CompletableFuture<Object2IntMap<K>> task : tasks)
+        {
+            for (Object2IntMap.Entry<K> entry : task.join().object2IntEntrySet())
+            {
+                counts.mergeInt(entry.getKey(), entry.getIntValue(), Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static <K> Object2IntMap<K> count(List<Section> sections, Predicate<BlockState> filter, Function<BlockState, K> key)
+    {
+        final Object2IntMap<K> counts = new Object2IntOpenHashMap<>();
+        for (Section section : sections)
+        {
+            section.count(filter, key, counts);
+        }
+        return counts;
+    }
+
+    private static List<Section> collectSections(LevelReader level, BoundingBox box, Predicate<BlockState> filter)
+    {
+        final List<Section> sections = new ArrayList<>();
+        final int minSectionY = Math.max(SectionPos.blockToSectionCoord(box.minY()), level.getMinSection());
+        final int maxSectionY = Math.min(SectionPos.blockToSectionCoord(box.maxY()), level.getMaxSection() - 1);
+        for (int chunkX = SectionPos.blockToSectionCoord(box.minX()); chunkX <= SectionPos.blockToSectionCoord(box.maxX()); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(box.minZ()); chunkZ <= SectionPos.blockToSectionCoord(box.maxZ()); chunkZ++)
+            {
+                final ChunkAccess chunk = level.getChunk(chunkX, chunkZ);
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++)
+                {
+                    final LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+                    if (section.maybeHas(filter))
+                    {
+                        sections.add(new Section(section, box, SectionPos.sectionToBlockCoord(chunkX), SectionPos.sectionToBlockCoord(sectionY), SectionPos.sectionToBlockCoord(chunkZ)));
+                    }
+                }
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * A section, and the range of local positions within it which are inside the box being scanned.
+     */
+    private record Section(LevelChunkSection section, int originX, int originY, int originZ, int minX, int minY, int minZ, int maxX, int maxY, int maxZ)
+    {
+        Section(LevelChunkSection section, BoundingBox box, int originX, int originY, int originZ)
+        {
+            this(section, originX, originY, originZ,
+                Math.max(box.minX() - originX, 0), Math.max(box.minY() - originY, 0), Math.max(box.minZ() - originZ, 0),
+                Math.min(box.maxX() - originX, 15), Math.min(box.maxY() - originY, 15), Math.min(box.maxZ() - originZ, 15));
+        }
+
+        void forEach(Predicate<BlockState> filter, BlockPos.MutableBlockPos cursor, BiConsumer<BlockPos, BlockState> visitor)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                for (int z = minZ; z <= maxZ; z++)
+                {
+                    for (int x = minX; x <= maxX; x++)
+                    {
+                        final BlockState state = section.getBlockState(x, y, z);
+                        if (filter.test(state))
+                        {
+                            visitor.accept(cursor.set(originX + x, originY + y, originZ + z), state);
+                        }
+                    }
+                }
+            }
+        }
+
+        <K> void count(Predicate<BlockState> filter, Function<BlockState, K> key, Object2IntMap<K> counts)
+        {
+            if (minX == 0 && minY == 0 && minZ == 0 && maxX == 15 && maxY == 15 && maxZ == 15)
+            {
+                section.getStates().count((state, count) -> {
+                    if (filter.test(state))
+                    {
+                        counts.mergeInt(key.apply(state), count, Integer::sum);
+                    }
+                });
+                return;
+            }
+            for (int y = minY; y <= maxY; y++)
+            {
+                for (int z = minZ; z <= maxZ; z++)
+                {
+                    for (int x = minX; x <= maxX; x++)
+                    {
+                        final BlockState state = section.getBlockState(x, y, z);
+                        if (filter.test(state))
+                        {
+                            counts.mergeInt(key.apply(state), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -135,6 +135,7 @@ import net.dries007.tfc.common.entities.prey.Pest;
 import net.dries007.tfc.common.items.TFCShieldItem;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.mixin.accessor.RecipeManagerAccessor;
+import net.dries007.tfc.util.tracker.EntityPopulation;
 
 import static net.dries007.tfc.TerraFirmaCraft.*;
 
@@ -518,7 +519,7 @@ public final class Helpers
         }
         if (level.random.nextInt(120 - (20 * infestation)) == 0)
         {
-            final float chanceBasedOnCurrentPests = 1f - Mth.clampedMap(level.getEntitiesOfClass(Pest.class, new AABB(pos).inflate(40d)).size(), 0, 8, 0f, 1f);
+            final float chanceBasedOnCurrentPests = 1f - Mth.clampedMap(EntityPopulation.count(level, EntityPopulation.PESTS, pos, 40), 0, 8, 0f, 1f);
             if (level.random.nextFloat() > chanceBasedOnCurrentPests)
             {
                 return;
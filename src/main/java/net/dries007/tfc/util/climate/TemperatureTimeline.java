@@ -0,0 +1,62 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.climate;
+
+import it.unimi.dsi.fastutil.longs.Long2FloatMap;
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+
+import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.calendar.ICalendar;
+
+/**
+ * Samples past temperatures, shared between every position at the same height in a chunk, to the nearest hour.
+ * <p>
+ * This is intended for simulating blocks which have been unloaded for a long period, such as crops, where many blocks in the same chunk require the temperature at many past times.
+ * Temperatures are sampled at the center of each chunk, at the start of each hour, so they are approximate, but the daily variation in temperature is exact.
+ * Samples are only kept for the tick they were taken in, as blocks are typically caught up all at once when their chunk is loaded.
+ */
+public final class TemperatureTimeline
+{
+    private final Long2ObjectMap<Long2FloatMap> samples = new Long2ObjectOpenHashMap<>(); // Keyed by chunk and height, then by calendar hour
+    private long lastTick = Long.MIN_VALUE;
+
+    /**
+     * @param tick A server tick, as in {@link Calendars#SERVER}
+     * @return The approximate temperature at {@code pos}, at {@code tick}.
+     */
+    public float getTemperature(Level level, BlockPos pos, long tick)
+    {
+        final long thisTick = Calendars.SERVER.getTicks();
+        if (thisTick != lastTick)
+        {
+            samples.clear();
+            lastTick = thisTick;
+        }
+
+        final int chunkX = SectionPos.blockToSectionCoord(pos.getX()), chunkZ = SectionPos.blockToSectionCoord(pos.getZ());
+        final Long2FloatMap chunkSamples = samples.computeIfAbsent(BlockPos.asLong(chunkX, pos.getY(), chunkZ), key -> {
+            final Long2FloatMap map = new Long2FloatOpenHashMap();
+            map.defaultReturnValue(Float.NaN);
+            return map;
+        });
+
+        final long hour = Math.floorDiv(Calendars.SERVER.ticksToCalendarTicks(tick), ICalendar.TICKS_IN_HOUR);
+        float temperature = chunkSamples.get(hour);
+        if (Float.isNaN(temperature))
+        {
+            final BlockPos center = new BlockPos(SectionPos.sectionToBlockCoord(chunkX, 8), pos.getY(), SectionPos.sectionToBlockCoord(chunkZ, 8));
+            temperature = Climate.getTemperature(level, center, Calendars.get(level), hour * ICalendar.TICKS_IN_HOUR);
+            chunkSamples.put(hour, temperature);
+        }
+        return temperature;
+    }
+}
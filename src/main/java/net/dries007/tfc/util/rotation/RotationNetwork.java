@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -25,6 +26,8 @@ import org.jetbrains.annotations.Nullable;
  */
 final class RotationNetwork
 {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
     private final long id;
     private final Node source;
     private final Long2ObjectMap<Node> nodes;
@@ -196,64 +199,76 @@ final class RotationNetwork
 
     /**
      * Update a network, once a node within it has been updated or removed.
+     * <p>
+     * Only nodes which receive their rotation through {@code changed} can be affected, so those are disconnected from the network, and then reconnected from any adjacent nodes which remain in the network.
+     * This reaches every node that is still connected, possibly through other paths, and updates its rotation, without visiting the rest of the network.
+     *
+     * @param changed A node which has been updated, or removed via {@link #removeNode(Node)}. It must not be the source.
      */
-    void updateNetwork()
+    void updateDownstreamOf(Node changed, RotationAccess level)
     {
-        // BFS from the source, marking each node as either visited, or unvisited.
-        // This method assumes all current nodes in the graph represent the real state in world.
-        // Thus, it should be called whenever nodes are removed, to detect disconnected components
-
         final Queue<Node> queue = new ArrayDeque<>();
-        final Set<Node> visited = new ReferenceOpenHashSet<>();
+        final Set<Node> downstream = new ReferenceOpenHashSet<>();
         final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        final boolean removed = !nodes.containsKey(changed.posKey());
 
-        queue.add(source);
-
-        // Initially populate the visited set with all nodes, and remove them as we find them
-        // This leaves the final set as all disconnected nodes, which makes removing them trivial
-        visited.addAll(nodes.values());
+        queue.add(changed);
+        downstream.add(changed);
 
+        // Find every node downstream of the changed node. This checks all directions, not just connections, as the changed node may have lost a connection to a node which is still sourced from it.
         while (!queue.isEmpty())
         {
             final Node current = queue.poll();
 
-            for (Direction direction : current.connections())
+            for (Direction direction : DIRECTIONS)
             {
                 cursor.setWithOffset(current.pos(), direction);
 
                 final @Nullable Node next = getNode(cursor);
-                final Direction inverseDirection = direction.getOpposite();
-
                 if (next != null && // There is a node at this position
-                    next.connections().contains(inverseDirection) && // That connects in the matching direction
-                    visited.contains(next) // We haven't already visited this node, and updated its rotation (and source). Prevents cycles
+                    next != source && // Which is not the source
+                    next.source() == direction.getOpposite() && // And receives its rotation from the current node
+                    downstream.add(next) // And we haven't already visited it
                 )
                 {
-                    // This node connects in the given direction, so we need to (1) mark it as seen, (2) push it to the queue, and (3) update the rotation parameters
-                    final Rotation exitRotation = current.rotation(direction);
+                    queue.add(next);
+                }
+            }
+        }
 
-                    // The node currently belongs to a network, so it's rotation should never be null
-                    assert exitRotation != null;
+        // Disconnect all downstream nodes, and find all nodes in the network which may reconnect them
+        // A removed node is left as-is, so it keeps its network and will not be reconnected
+        for (Node node : downstream)
+        {
+            if (node != changed || !removed)
+            {
+                node.remove();
+                nodes.remove(node.posKey());
+            }
+        }
 
-                    if (!next.update(id, inverseDirection, exitRotation))
-                    {
-                        // This node could not be updated to be part of the network, so we have to abort here
-                        // We don't enqueue the node or add it to the network
-                        // Removal of the node is already handled (as per the contract of `update()`)
-                        continue;
-                    }
+        final Set<Node> upstream = new ReferenceLinkedOpenHashSet<>();
+        for (Node node : downstream)
+        {
+            for (Direction direction : node.connections())
+            {
+                cursor.setWithOffset(node.pos(), direction);
 
-                    queue.add(next);
-                    visited.remove(next);
+                final @Nullable Node adjacent = getNode(cursor);
+                if (adjacent != null && adjacent.connections().contains(direction.getOpposite()))
+                {
+                    upstream.add(adjacent);
                 }
             }
         }
 
-        // Any nodes that were not visited, are disconnected and are removed from the network
-        for (Node node : visited)
+        // Reconnect, from each adjacent node, in the same way as adding a node
+        for (Node node : upstream)
         {
-            node.remove();
-            nodes.remove(node.posKey());
+            if (node.network() == id)
+            {
+                updateAfterAdd(node, level);
+            }
         }
     }
 
@@ -6,7 +6,9 @@
 
 package net.dries007.tfc.util.rotation;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Collectors;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
@@ -22,6 +24,8 @@ import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 /**
  * A collection of all {@link RotationNetwork}s present in a single world. In general interactions should be able to go through the static methods, rather than on an individual instance.
  * <p>
+ * Every node records the network it belongs to, so the networks a node may connect to are found from its adjacent nodes, and changes to a network only visit the nodes downstream of the change. This keeps the cost of adding, updating, and removing nodes independent of the number of networks in the world.
+ * <p>
  * A single {@link RotationNetworkManager} is maintained per-world, on both sides.
  */
 public final class RotationNetworkManager implements RotationAccess
@@ -112,7 +116,7 @@ public final class RotationNetworkManager implements RotationAccess
     public boolean add(Node toAdd)
     {
         @Nullable RotationNetwork addedNetwork = null;
-        for (RotationNetwork network : networks.values())
+        for (RotationNetwork network : getAdjacentNetworks(toAdd))
         {
             switch (network.updateOnAdd(toAdd))
             {
@@ -169,7 +173,7 @@ public final class RotationNetworkManager implements RotationAccess
             // If so, this update needs to be reverted and the current block broken, which means removing it from its original network
             final RotationNetwork originNetwork = getNetwork(networkId);
 
-            for (RotationNetwork network : networks.values())
+            for (RotationNetwork network : getAdjacentNetworks(toUpdate))
             {
                 // Note that the node already belongs to a network, so if this returns true, it is already broken and will not add
                 switch (network.updateOnAdd(toUpdate))
@@ -185,7 +189,7 @@ public final class RotationNetworkManager implements RotationAccess
 
                         // Remove from the original network, and then update any connected nodes
                         originNetwork.removeNode(toUpdate);
-                        originNetwork.updateNetwork();
+                        originNetwork.updateDownstreamOf(toUpdate, this);
 
                         // Return false, indicating the node was broken and needs to be removed
                         return false;
@@ -193,11 +197,9 @@ public final class RotationNetworkManager implements RotationAccess
                 }
             }
 
-            // We first have to reconsider this node as 'added', because it may have increased connectivity to nodes outside the network, that were disconnected.
-            originNetwork.updateAfterAdd(toUpdate, this);
-
-            // Then, we need to update the network, because likewise we may have _lost_ connectivity with this node
-            originNetwork.updateNetwork();
+            // We need to update the network downstream of this node, because we may have _lost_ connectivity with this node
+            // This also reconsiders this node as 'added', because it may have increased connectivity to nodes outside the network, that were disconnected.
+            originNetwork.updateDownstreamOf(toUpdate, this);
             return true;
         }
         else
@@ -230,9 +232,9 @@ public final class RotationNetworkManager implements RotationAccess
                 }
                 else
                 {
-                    // Otherwise, we need to update the network regularly, after removing the specific node
+                    // Otherwise, we need to update the network downstream of the removed node, after removing the specific node
                     network.removeNode(toRemove);
-                    network.updateNetwork();
+                    network.updateDownstreamOf(toRemove, this);
                 }
             }
         }
@@ -262,6 +264,31 @@ public final class RotationNetworkManager implements RotationAccess
             .collect(Collectors.joining("\n"));
     }
 
+    /**
+     * @return Every network which contains a node adjacent to {@code node}, which connects to it. These are the only networks which {@code node} could connect to. Ordered by network ID, so results do not depend on iteration order.
+     */
+    private List<RotationNetwork> getAdjacentNetworks(Node node)
+    {
+        final List<RotationNetwork> adjacentNetworks = new ArrayList<>(2);
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (Direction direction : node.connections())
+        {
+            cursor.setWithOffset(node.pos(), direction);
+
+            final @Nullable Node adjacent = getNode(cursor);
+            if (adjacent != null && adjacent != node && adjacent.network() != Node.NO_NETWORK && adjacent.connections().contains(direction.getOpposite()))
+            {
+                final @Nullable RotationNetwork network = networks.get(adjacent.network());
+                if (network != null && !adjacentNetworks.contains(network))
+                {
+                    adjacentNetworks.add(network);
+                }
+            }
+        }
+        adjacentNetworks.sort(Comparator.comparingLong(RotationNetwork::networkId));
+        return adjacentNetworks;
+    }
+
     private RotationNetwork getNetwork(long networkId)
     {
         final RotationNetwork network = networks.get(networkId);
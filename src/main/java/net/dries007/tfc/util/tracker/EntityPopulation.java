@@ -0,0 +1,107 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.tracker;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.common.entities.prey.Pest;
+
+/**
+ * Counts of entities in each chunk of a level, for categories of entities which are frequently counted over a wide area, such as pests around an infested container.
+ * Counting from these only requires summing a counter for each chunk in the area, rather than visiting every entity section and entity in it.
+ * <p>
+ * Counts are kept up to date by the counted entities themselves, which add themselves in {@link Entity#onAddedToWorld()}, remove themselves in {@link Entity#onRemovedFromWorld()}, and move themselves when their chunk changes.
+ * Both hooks are called when an entity starts and stops being tracked by the level, including when its chunk is loaded and unloaded, so every add is matched by exactly one remove, from the same chunk.
+ * A single {@link EntityPopulation} is maintained per-world, on the server only.
+ */
+public final class EntityPopulation
+{
+    private static int categories = 0;
+
+    public static final Category PESTS = register(Pest.class);
+
+    /**
+     * Counts the entities of a category within {@code radius} blocks, horizontally, of {@code pos}. Every entity in a chunk which is at least partially within the radius is counted, at any height.
+     */
+    public static int count(Level level, Category category, BlockPos pos, int radius)
+    {
+        final EntityPopulation population = get(level);
+        if (population == null)
+        {
+            return level.getEntitiesOfClass(category.type, new AABB(pos).inflate(radius)).size();
+        }
+        return population.count(category, pos, radius);
+    }
+
+    @Nullable
+    public static EntityPopulation get(Level level)
+    {
+        return level.isClientSide ? null : level.getCapability(WorldTrackerCapability.CAPABILITY).map(WorldTracker::getEntityPopulation).orElse(null);
+    }
+
+    private static Category register(Class<? extends Entity> type)
+    {
+        return new Category(categories++, type);
+    }
+
+    private final Long2ObjectMap<int[]> countsByChunk = new Long2ObjectOpenHashMap<>(); // Indexed by category
+
+    public void add(Category category, long chunk)
+    {
+        countsByChunk.computeIfAbsent(chunk, key -> new int[categories])[category.index]++;
+    }
+
+    public void remove(Category category, long chunk)
+    {
+        final int[] counts = countsByChunk.get(chunk);
+        assert counts != null && counts[category.index] > 0 : "Removed an entity which was not counted";
+        counts[category.index]--;
+        if (isEmpty(counts))
+        {
+            countsByChunk.remove(chunk);
+        }
+    }
+
+    public int count(Category category, BlockPos pos, int radius)
+    {
+        int count = 0;
+        for (int chunkX = SectionPos.blockToSectionCoord(pos.getX() - radius); chunkX <= SectionPos.blockToSectionCoord(pos.getX() + radius); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(pos.getZ() - radius); chunkZ <= SectionPos.blockToSectionCoord(pos.getZ() + radius); chunkZ++)
+            {
+                final int[] counts = countsByChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (counts != null)
+                {
+                    count += counts[category.index];
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isEmpty(int[] counts)
+    {
+        for (int count : counts)
+        {
+            if (count != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public record Category(int index, Class<? extends Entity> type) {}
+}
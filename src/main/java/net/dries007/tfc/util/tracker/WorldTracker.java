@@ -29,6 +29,8 @@ import net.minecraftforge.network.PacketDistributor;
 
 import net.dries007.tfc.client.TFCSounds;
 import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.common.blocks.rock.AqueductNetworkManager;
+import net.dries007.tfc.common.entities.ai.predator.PackIndex;
 import net.dries007.tfc.common.entities.misc.TFCFallingBlockEntity;
 import net.dries007.tfc.common.recipes.CollapseRecipe;
 import net.dries007.tfc.common.recipes.LandslideRecipe;
@@ -41,6 +43,7 @@ import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.climate.BiomeBasedClimateModel;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
+import net.dries007.tfc.util.climate.TemperatureTimeline;
 import net.dries007.tfc.util.collections.BufferedList;
 import net.dries007.tfc.util.loot.TFCLoot;
 import net.dries007.tfc.util.rotation.RotationNetworkManager;
@@ -62,6 +65,10 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     @Nullable private ClimateModel climateModel;
 
     private final RotationNetworkManager rotationManager;
+    private final TemperatureTimeline temperatureTimeline;
+    private final PackIndex packIndex;
+    private final EntityPopulation entityPopulation;
+    private final AqueductNetworkManager aqueductManager;
 
     private long rainStartTick, rainEndTick;
     private float rainIntensity;
@@ -76,6 +83,10 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         this.isolatedPositions = new BufferedList<>();
         this.collapsesInProgress = new ArrayList<>();
         this.rotationManager = new RotationNetworkManager();
+        this.temperatureTimeline = new TemperatureTimeline();
+        this.packIndex = new PackIndex();
+        this.entityPopulation = new EntityPopulation();
+        this.aqueductManager = new AqueductNetworkManager();
     }
 
     public void addLandslidePos(BlockPos pos)
@@ -155,6 +166,26 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return rotationManager;
     }
 
+    public TemperatureTimeline getTemperatureTimeline()
+    {
+        return temperatureTimeline;
+    }
+
+    public PackIndex getPackIndex()
+    {
+        return packIndex;
+    }
+
+    public EntityPopulation getEntityPopulation()
+    {
+        return entityPopulation;
+    }
+
+    public AqueductNetworkManager getAqueductManager()
+    {
+        return aqueductManager;
+    }
+
     public void tick(ServerLevel level)
     {
         if (!collapsesInProgress.isEmpty() && random.nextInt(10) == 0)
@@ -186,6 +217,8 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
             collapsesInProgress.removeIf(collapse -> collapse.nextPositions.isEmpty());
         }
 
+        aqueductManager.tick(level);
+
         landslideTicks.flush();
         Iterator<TickEntry> tickIterator = landslideTicks.listIterator();
         while (tickIterator.hasNext())
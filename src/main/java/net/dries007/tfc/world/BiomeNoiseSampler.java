@@ -21,11 +21,26 @@ public interface BiomeNoiseSampler
         return new BiomeNoiseSampler()
         {
             private float height;
+            private final double[] chunkHeight = new double[16 * 16];
+            private int chunkX, chunkZ;
+            private boolean prepared;
+
+            @Override
+            public void prepareChunk(int minX, int minZ)
+            {
+                heightNoise.fillGrid(chunkHeight, minX, minZ, 1, 16, 16);
+                chunkX = minX;
+                chunkZ = minZ;
+                prepared = true;
+            }
 
             @Override
             public void setColumn(int x, int z)
             {
-                height = (float) heightNoise.noise(x, z);
+                final int localX = x - chunkX, localZ = z - chunkZ;
+                height = prepared && (localX & ~15) == 0 && (localZ & ~15) == 0
+                    ? (float) chunkHeight[localX + 16 * localZ]
+                    : (float) heightNoise.noise(x, z);
             }
 
             @Override
@@ -42,6 +57,11 @@ public interface BiomeNoiseSampler
         };
     }
 
+    /**
+     * Optionally samples any noise for the 16x16 columns starting at {@code (minX, minZ)}, in a batch, so that {@link #setColumn(int, int)} on those columns is faster. This must not change the result of any column.
+     */
+    default void prepareChunk(int minX, int minZ) {}
+
     void setColumn(int x, int z);
 
     double height();
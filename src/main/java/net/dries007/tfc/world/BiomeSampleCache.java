@@ -0,0 +1,69 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import net.dries007.tfc.world.biome.BiomeExtension;
+
+/**
+ * A concurrent cache of raw biome samples, on a fixed grid of {@code 1 << resolutionBits} blocks.
+ * <p>
+ * Biome blending in {@link TFCChunkGenerator} samples a wide kernel around each chunk, which overlaps heavily with the kernels of neighbouring chunks. This caches samples in square tiles of {@link #TILE_SIZE} x {@link #TILE_SIZE} grid points, so adjacent chunks can share them rather than each querying the biome source again. Tiles are filled lazily, one sample at a time. Concurrent writes to the same sample always write the same value, and tiles which are evicted are simply re-sampled, so no locking is needed.
+ */
+public final class BiomeSampleCache implements Sampler<BiomeExtension>
+{
+    public static final int TILE_BITS = 4;
+    public static final int TILE_SIZE = 1 << TILE_BITS;
+
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final Sampler<BiomeExtension> sampler;
+    private final FastConcurrentCache<BiomeExtension[]> tiles;
+    private final int resolutionBits;
+
+    /**
+     * @param sampler        The underlying biome sampler, in block coordinates.
+     * @param resolutionBits The spacing of the sample grid, as a power of two, in blocks.
+     * @param size           The maximum number of tiles to retain.
+     */
+    public BiomeSampleCache(Sampler<BiomeExtension> sampler, int resolutionBits, int size)
+    {
+        this.sampler = sampler;
+        this.tiles = new FastConcurrentCache<>(size);
+        this.resolutionBits = resolutionBits;
+    }
+
+    /**
+     * Samples the biome at the grid point containing {@code (blockX, blockZ)}. Callers are expected to query positions aligned to the grid, or else use an underlying sampler which is constant across each grid cell.
+     */
+    @Override
+    public BiomeExtension get(int blockX, int blockZ)
+    {
+        final int x = blockX >> resolutionBits, z = blockZ >> resolutionBits; // Grid coordinates
+        final int tileX = x >> TILE_BITS, tileZ = z >> TILE_BITS;
+
+        BiomeExtension[] tile = tiles.getIfPresent(tileX, tileZ);
+        if (tile == null)
+        {
+            tile = new BiomeExtension[TILE_SIZE * TILE_SIZE];
+            tiles.set(tileX, tileZ, tile);
+        }
+
+        final int index = (x & TILE_MASK) | ((z & TILE_MASK) << TILE_BITS);
+        BiomeExtension biome = tile[index];
+        if (biome == null)
+        {
+            biome = sampler.get(x << resolutionBits, z << resolutionBits);
+            tile[index] = biome;
+        }
+        return biome;
+    }
+
+    public FastConcurrentCache<BiomeExtension[]> tiles()
+    {
+        return tiles;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Arrays;
+
+import net.dries007.tfc.world.biome.BiomeBlendType;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+
+/**
+ * A primitive accumulator of weights per {@link BiomeExtension}. Weights are stored densely, indexed by {@link BiomeExtension#id()}, along with a list of the ids which are currently present, so iteration and clearing only touch the biomes that have been added.
+ * <p>
+ * This replaces an {@code Object2DoubleMap<BiomeExtension>}, and is meant to be cleared and reused, via {@link SampledBiomeWeights}, rather than allocated per chunk.
+ */
+public final class BiomeWeights
+{
+    private final double[] weights;
+    private final boolean[] present;
+    private final int[] ids;
+    private int size;
+
+    // Scratch space used by composeWith()
+    private final double[] maxGroupWeights = new double[BiomeBlendType.SIZE];
+    private final double[] actualGroupWeights = new double[BiomeBlendType.SIZE];
+
+    public BiomeWeights()
+    {
+        final int count = TFCBiomes.getExtensionCount();
+
+        this.weights = new double[count];
+        this.present = new boolean[count];
+        this.ids = new int[count];
+        this.size = 0;
+    }
+
+    /**
+     * @return The number of biomes present.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return The biome at index {@code i}, where {@code i} is in {@code [0, size())}
+     */
+    public BiomeExtension biome(int i)
+    {
+        return TFCBiomes.getExtensionById(ids[i]);
+    }
+
+    /**
+     * @return The weight at index {@code i}, where {@code i} is in {@code [0, size())}
+     */
+    public double weight(int i)
+    {
+        return weights[ids[i]];
+    }
+
+    public double getOrDefault(BiomeExtension biome, double defaultValue)
+    {
+        return present[biome.id()] ? weights[biome.id()] : defaultValue;
+    }
+
+    public void add(BiomeExtension biome, double weight)
+    {
+        add(biome.id(), weight);
+    }
+
+    /**
+     * Adds all weights of {@code other}, scaled by {@code t}, to this. Does nothing if {@code t <= 0}. Used to add the contribution of one corner when interpolating between sampled weights.
+     */
+    public void addAll(BiomeWeights other, double t)
+    {
+        if (t > 0)
+        {
+            for (int i = 0; i < other.size; i++)
+            {
+                final int id = other.ids[i];
+                add(id, other.weights[id] * t);
+            }
+        }
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            final int id = ids[i];
+            weights[id] = 0;
+            present[id] = false;
+        }
+        size = 0;
+    }
+
+    /**
+     * Composes two levels of sampled weights, where {@code this} is the higher resolution weights, and {@code groupWeights} are the lower resolution weights, grouped by {@link BiomeBlendType}.
+     * Each weight in {@code this} is replaced with a proportional average of the weights of the same group in {@code groupWeights}.
+     * This has the effect of blending specific groups at closer distances than others, allowing for both smooth and sharp biome transitions.
+     * <p>
+     * Example:
+     * - Low resolution: 30% Plains, 40% Mountains, 30% Hills, 10% River
+     * - High resolution: 60% Plains, 40% River
+     * - Groups are "River" and "Not River"
+     * - For each element in the high resolution map:
+     * - 60% Plains: Group "Not River", and is replaced with 60% * (30% Plains, 40% Mountains, 30% Hills) / 90%
+     * - 40% River: Group "River", which is replaced with 40% * (10% River) / 10%
+     * - Result: 20% Plains, 26.7% Mountains, 20% Hills, 40% River
+     */
+    public void composeWith(BiomeWeights groupWeights)
+    {
+        Arrays.fill(maxGroupWeights, 0);
+        Arrays.fill(actualGroupWeights, 0);
+
+        // First, we need to calculate the maximum weight per group
+        for (int i = 0; i < groupWeights.size; i++)
+        {
+            final int id = groupWeights.ids[i];
+            maxGroupWeights[group(id)] += groupWeights.weights[id];
+        }
+
+        // Then, identify the actual weight that needs to be replaced with each group. Since every biome has a group, this removes every entry.
+        for (int i = 0; i < size; i++)
+        {
+            final int id = ids[i];
+            actualGroupWeights[group(id)] += weights[id];
+        }
+        clear();
+
+        // Finally, insert the weights for each group as a portion of the actual weight
+        for (int i = 0; i < groupWeights.size; i++)
+        {
+            final int id = groupWeights.ids[i];
+            final int group = group(id);
+            if (actualGroupWeights[group] > 0 && maxGroupWeights[group] > 0)
+            {
+                add(id, groupWeights.weights[id] * actualGroupWeights[group] / maxGroupWeights[group]);
+            }
+        }
+    }
+
+    private void add(int id, double weight)
+    {
+        if (!present[id])
+        {
+            present[id] = true;
+            ids[size++] = id;
+        }
+        weights[id] += weight;
+    }
+
+    private static int group(int id)
+    {
+        return TFCBiomes.getExtensionById(id).biomeBlendType().ordinal();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import net.minecraft.world.level.levelgen.WorldgenRandom;
+import net.minecraft.world.level.levelgen.carver.ConfiguredWorldCarver;
+
+/**
+ * Caches which carvers start in each chunk, along with the seed they were started with.
+ * <p>
+ * Carving a chunk considers every carver of every chunk in a 17x17 neighbourhood, so each chunk's start decisions would otherwise be recomputed by up to 289 different chunks. Decisions are deterministic for a given world seed, so entries that are evicted are simply recomputed.
+ */
+public final class CarverStartCache
+{
+    private static final Start[] NONE = new Start[0];
+
+    private final FastConcurrentCache<Starts> cache;
+
+    public CarverStartCache(int size)
+    {
+        this.cache = new FastConcurrentCache<>(size);
+    }
+
+    /**
+     * @param seed    The world seed.
+     * @param carvers A supplier of all carvers for the source chunk, only queried if the starts are not cached.
+     * @param fork    A positional random, created from the world seed, used to seed each carver.
+     * @param random  A random, which will be re-seeded, used to evaluate if each carver starts.
+     * @return All carvers which start in the chunk {@code (chunkX, chunkZ)}.
+     */
+    public Start[] get(long seed, int chunkX, int chunkZ, Supplier<Iterable<Holder<ConfiguredWorldCarver<?>>>> carvers, PositionalRandomFactory fork, WorldgenRandom random)
+    {
+        final Starts cached = cache.getIfPresent(chunkX, chunkZ);
+        if (cached != null && cached.seed == seed)
+        {
+            return cached.starts;
+        }
+
+        final List<Start> starts = new ArrayList<>();
+        int i = 1;
+        for (Holder<ConfiguredWorldCarver<?>> holder : carvers.get())
+        {
+            final long chunkSeed = fork.at(chunkX, i, chunkZ).nextLong();
+
+            random.setSeed(chunkSeed);
+            final ConfiguredWorldCarver<?> carver = holder.value();
+            if (carver.isStartChunk(random))
+            {
+                starts.add(new Start(carver, chunkSeed));
+            }
+            i++;
+        }
+
+        final Start[] array = starts.isEmpty() ? NONE : starts.toArray(Start[]::new);
+        cache.set(chunkX, chunkZ, new Starts(seed, array));
+        return array;
+    }
+
+    /**
+     * A carver which starts in a chunk.
+     *
+     * @param seed The seed of the random used to start the carver. In order to carve, the random must be re-seeded and {@link ConfiguredWorldCarver#isStartChunk} called again, so it is in the same state as when the carver started.
+     */
+    public record Start(ConfiguredWorldCarver<?> carver, long seed) {}
+
+    private record Starts(long seed, Start[] starts) {}
+}
@@ -13,9 +13,11 @@ import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.levelgen.Aquifer;
+import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
 import net.dries007.tfc.world.chunkdata.ChunkDataProvider;
+import net.dries007.tfc.world.feature.vein.VeinCache;
 import net.dries007.tfc.world.settings.RockLayerSettings;
 import net.dries007.tfc.world.settings.Settings;
 
@@ -47,6 +49,15 @@ public interface ChunkGeneratorExtension
 
     Aquifer getOrCreateAquifer(ChunkAccess chunk);
 
+    /**
+     * @return A cache of veins, shared by all vein features placed by this generator, or {@code null} if veins should not be cached.
+     */
+    @Nullable
+    default VeinCache veinCache()
+    {
+        return null;
+    }
+
     /**
      * Find the spawn biome. This is by default a bouncer to {@link BiomeSourceExtension#findSpawnBiome(Settings, RandomSource)}, which uses the {@link #settings()} from the chunk generator.
      */
@@ -24,15 +24,23 @@ public class ChunkHeightFiller
     protected final Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers; // Biome -> Noise Samplers
     protected final Object2DoubleMap<BiomeNoiseSampler> columnBiomeNoiseSamplers; // Per column weighted map of biome noises samplers
 
-    protected final Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
-    protected final Object2DoubleMap<BiomeExtension> biomeWeights1; // Local biome weights, for individual column adjustment
+    protected final SampledBiomeWeights sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
+    protected final BiomeWeights biomeWeights1; // Local biome weights, for individual column adjustment
 
-    public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights)
+    public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, SampledBiomeWeights sampledBiomeWeights)
     {
         this.biomeNoiseSamplers = biomeNoiseSamplers;
         this.columnBiomeNoiseSamplers = new Object2DoubleOpenHashMap<>();
         this.sampledBiomeWeights = sampledBiomeWeights;
-        this.biomeWeights1 = new Object2DoubleOpenHashMap<>();
+        this.biomeWeights1 = sampledBiomeWeights.column();
+    }
+
+    /**
+     * Returns the pooled biome weights held by this filler. This filler must not be used after it is released.
+     */
+    public void release()
+    {
+        sampledBiomeWeights.release();
     }
 
     /**
@@ -63,10 +71,10 @@ public class ChunkHeightFiller
         final double lerpZ = (localZ - ((localZ >> 2) << 2)) * (1 / 4d);
 
         biomeWeights1.clear();
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[index4X + index4Z * 7], (1 - lerpX) * (1 - lerpZ));
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[(index4X + 1) + index4Z * 7], lerpX * (1 - lerpZ));
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[index4X + (index4Z + 1) * 7], (1 - lerpX) * lerpZ);
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[(index4X + 1) + (index4Z + 1) * 7], lerpX * lerpZ);
+        biomeWeights1.addAll(sampledBiomeWeights.quart(index4X + index4Z * 7), (1 - lerpX) * (1 - lerpZ));
+        biomeWeights1.addAll(sampledBiomeWeights.quart((index4X + 1) + index4Z * 7), lerpX * (1 - lerpZ));
+        biomeWeights1.addAll(sampledBiomeWeights.quart(index4X + (index4Z + 1) * 7), (1 - lerpX) * lerpZ);
+        biomeWeights1.addAll(sampledBiomeWeights.quart((index4X + 1) + (index4Z + 1) * 7), lerpX * lerpZ);
     }
 
     /**
@@ -77,7 +85,7 @@ public class ChunkHeightFiller
      * @param updateArrays If, in the stateful implementation, arrays corresponding to position within the chunk should be updated.
      * @return The maximum height at this location
      */
-    protected double sampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, int blockX, int blockZ, boolean updateArrays)
+    protected double sampleColumnHeightAndBiome(BiomeWeights biomeWeights, int blockX, int blockZ, boolean updateArrays)
     {
         columnBiomeNoiseSamplers.clear();
 
@@ -89,10 +97,10 @@ public class ChunkHeightFiller
 
         double maxOceanicWeight = 0; // Partition on ocean/non-ocean or water type.
 
-        for (Object2DoubleMap.Entry<BiomeExtension> entry : biomeWeights.object2DoubleEntrySet())
+        for (int i = 0; i < biomeWeights.size(); i++)
         {
-            final double weight = entry.getDoubleValue();
-            final BiomeExtension biome = entry.getKey();
+            final double weight = biomeWeights.weight(i);
+            final BiomeExtension biome = biomeWeights.biome(i);
             final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(biome);
 
             assert sampler != null : "Non-existent sampler for biome: " + biome.key();
@@ -116,13 +124,13 @@ public class ChunkHeightFiller
                 shoreWeight += weight;
                 if (maxShoreWeight < weight)
                 {
-                    shoreBiomeAt = entry.getKey();
+                    shoreBiomeAt = biome;
                     maxShoreWeight = weight;
                 }
             }
             else if (maxNormalWeight < weight)
             {
-                normalBiomeAt = entry.getKey();
+                normalBiomeAt = biome;
                 maxNormalWeight = weight;
             }
 
@@ -160,7 +168,7 @@ public class ChunkHeightFiller
         return afterSampleColumnHeightAndBiome(biomeWeights, biomeAt, actualHeight, updateArrays);
     }
 
-    protected double afterSampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, BiomeExtension biomeAt, double actualHeight, boolean updateArrays)
+    protected double afterSampleColumnHeightAndBiome(BiomeWeights biomeWeights, BiomeExtension biomeAt, double actualHeight, boolean updateArrays)
     {
         return actualHeight;
     }
@@ -116,7 +116,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private double cellDeltaX, cellDeltaZ; // Delta within a noise cell
     private int lastCellZ; // Last cell Z, needed due to a quick in noise interpolator
 
-    public ChunkNoiseFiller(ProtoChunk chunk, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights, BiomeSourceExtension biomeSource, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Map<RiverBlendType, RiverNoiseSampler> riverNoiseSamplers, NoiseSampler sampler, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel, Beardifier beardifier)
+    public ChunkNoiseFiller(ProtoChunk chunk, SampledBiomeWeights sampledBiomeWeights, BiomeSourceExtension biomeSource, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Map<RiverBlendType, RiverNoiseSampler> riverNoiseSamplers, NoiseSampler sampler, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel, Beardifier beardifier)
     {
         super(biomeNoiseSamplers, sampledBiomeWeights);
 
@@ -296,7 +296,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
             int z0 = chunkMinZ + ((z - 1) << 2);
 
             setupColumn(x0, z0);
-            quartSurfaceHeight[x + 7 * z] = (int) sampleColumnHeightAndBiome(sampledBiomeWeights[x + z * 7], blockX, blockZ, false);
+            quartSurfaceHeight[x + 7 * z] = (int) sampleColumnHeightAndBiome(sampledBiomeWeights.quart(x + z * 7), blockX, blockZ, false);
         }
 
         double[] slopeMap = new double[6 * 6];
@@ -323,6 +323,8 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
      */
     public void fillFromNoise()
     {
+        prepareBiomeNoiseSamplers();
+
         interpolator.initializeForFirstCellX();
         final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
         for (int cellX = 0; cellX < settings.cellCountXZ(); cellX++)
@@ -354,16 +356,41 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         }
     }
 
+    /**
+     * Prepares the noise samplers of every biome which contributes to any column in this chunk, so their height can be sampled in batches.
+     */
+    private void prepareBiomeNoiseSamplers()
+    {
+        final boolean[] prepared = new boolean[TFCBiomes.getExtensionCount()];
+        for (int x = 1; x <= 5; x++)
+        {
+            for (int z = 1; z <= 5; z++)
+            {
+                // Columns interpolate between the quart weights in [1, 5], see prepareColumnBiomeWeights()
+                final BiomeWeights weights = sampledBiomeWeights.quart(x + 7 * z);
+                for (int i = 0; i < weights.size(); i++)
+                {
+                    final BiomeExtension biome = weights.biome(i);
+                    if (!prepared[biome.id()])
+                    {
+                        prepared[biome.id()] = true;
+                        biomeNoiseSamplers.get(biome).prepareChunk(chunkMinX, chunkMinZ);
+                    }
+                }
+            }
+        }
+    }
+
     @Override
-    protected double afterSampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, BiomeExtension biomeAt, double height, boolean updateArrays)
+    protected double afterSampleColumnHeightAndBiome(BiomeWeights biomeWeights, BiomeExtension biomeAt, double height, boolean updateArrays)
     {
         final int localIndex = localX + 16 * localZ;
 
         // Sum weights by biome extension -> river blend type first
         Arrays.fill(riverBlendWeights, 0d);
-        for (Object2DoubleMap.Entry<BiomeExtension> entry : biomeWeights.object2DoubleEntrySet())
+        for (int i = 0; i < biomeWeights.size(); i++)
         {
-            riverBlendWeights[entry.getKey().riverBlendType().ordinal()] += entry.getDoubleValue();
+            riverBlendWeights[biomeWeights.biome(i).riverBlendType().ordinal()] += biomeWeights.weight(i);
         }
 
         // Adjust bias for river cave to create sharp cutoffs at borders, helps prevent caves from breaking up rivers
@@ -690,7 +717,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     }
 
     /**
-     * Initializes enough to call {@link #sampleColumnHeightAndBiome(Object2DoubleMap, int, int, boolean)}
+     * Initializes enough to call {@link #sampleColumnHeightAndBiome(BiomeWeights, int, int, boolean)}
      */
     private void setupColumn(int x, int z)
     {
@@ -0,0 +1,136 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.Registry;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.FeatureSorter;
+import net.minecraft.world.level.levelgen.placement.PlacedFeature;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.world.biome.TFCBiomes;
+
+/**
+ * Caches the setup for {@link TFCChunkGenerator#applyBiomeDecoration}, which is otherwise repeated for every chunk.
+ * <ul>
+ *     <li>Structures, grouped by decoration step, which only depend on the structure registry.</li>
+ *     <li>Decoration plans: the sorted indices of the features to place at each decoration step, which only depend on the set of biomes adjacent to a chunk.</li>
+ * </ul>
+ * Both are invalidated whenever the structure registry or the ordered features (which are rebuilt with the biome registry) change.
+ */
+public final class DecorationPlanCache
+{
+    private static final int MAX_PLANS = 4096;
+
+    @Nullable private volatile Tables tables;
+
+    public Tables get(Registry<Structure> structures, List<FeatureSorter.StepFeatureData> orderedFeatures)
+    {
+        Tables tables = this.tables;
+        if (tables == null || tables.structures != structures || tables.orderedFeatures != orderedFeatures)
+        {
+            tables = new Tables(structures, orderedFeatures);
+            this.tables = tables;
+        }
+        return tables;
+    }
+
+    public static final class Tables
+    {
+        private final Registry<Structure> structures;
+        private final List<FeatureSorter.StepFeatureData> orderedFeatures;
+        private final List<List<Structure>> structuresByStep;
+        private final Map<Set<Biome>, int[][]> plans;
+
+        Tables(Registry<Structure> structures, List<FeatureSorter.StepFeatureData> orderedFeatures)
+        {
+            this.structures = structures;
+            this.orderedFeatures = orderedFeatures;
+            this.structuresByStep = new ArrayList<>();
+            this.plans = new ConcurrentHashMap<>();
+
+            for (int step = 0; step < steps(); step++)
+            {
+                structuresByStep.add(new ArrayList<>());
+            }
+            for (Structure structure : structures)
+            {
+                structuresByStep.get(structure.step().ordinal()).add(structure);
+            }
+        }
+
+        /**
+         * @return The number of decoration steps, which is the maximum of the vanilla decoration steps, and the number of ordered feature steps.
+         */
+        public int steps()
+        {
+            return Math.max(TFCChunkGenerator.DECORATION_STEPS, orderedFeatures.size());
+        }
+
+        public List<Structure> structures(int step)
+        {
+            return structuresByStep.get(step);
+        }
+
+        /**
+         * @param adjacentBiomes All biomes present in the chunk being decorated, and its eight neighbours.
+         * @return For each ordered feature step, the sorted indices of features to place in that step.
+         */
+        public int[][] plan(LevelAccessor level, Set<Biome> adjacentBiomes)
+        {
+            int[][] plan = plans.get(adjacentBiomes);
+            if (plan == null)
+            {
+                plan = createPlan(level, adjacentBiomes);
+                if (plans.size() >= MAX_PLANS)
+                {
+                    plans.clear(); // Should never be reached with a sane amount of biomes, but don't grow unbounded
+                }
+                plans.put(Set.copyOf(adjacentBiomes), plan);
+            }
+            return plan;
+        }
+
+        private int[][] createPlan(LevelAccessor level, Set<Biome> adjacentBiomes)
+        {
+            final int[][] plan = new int[orderedFeatures.size()][];
+            for (int decorationIndex = 0; decorationIndex < orderedFeatures.size(); decorationIndex++)
+            {
+                final IntSet featureIndices = new IntArraySet();
+                final FeatureSorter.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
+                for (Biome biome : adjacentBiomes)
+                {
+                    final List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
+                    if (decorationIndex < featuresPerBiome.size())
+                    {
+                        for (Holder<PlacedFeature> holder : featuresPerBiome.get(decorationIndex))
+                        {
+                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
+                        }
+                    }
+                }
+
+                final int[] sortedIndices = featureIndices.toIntArray();
+                Arrays.sort(sortedIndices);
+                plan[decorationIndex] = sortedIndices;
+            }
+            return plan;
+        }
+    }
+}
@@ -6,8 +6,8 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Arrays;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
@@ -15,53 +15,157 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A concurrent (safe to read and write between multiple threads) positional based, lossy, cache.
+ * <p>
+ * This cache is lock-free, and {@link #WAYS}-way set associative: each key hashes to a set of slots, and within a set, the least recently used entry is evicted first. Entries are stored as immutable key / value pairs, so a reader can never observe a key with another key's value, and readers never block writers.
+ * <p>
+ * Recency tracking and the hit, miss and eviction counters are best-effort: concurrent updates may race, which can only affect which entry gets evicted, never the correctness of a returned value. It is also possible for two threads that miss at the same time to both insert the same key, in which case a duplicate entry occupies a slot until it is evicted. This is harmless for deterministic values, which is what all the world generation caches store.
  */
 public class FastConcurrentCache<T>
 {
-    private final StampedLock lock = new StampedLock();
+    public static final int WAYS = 4;
 
-    private final long[] keys;
-    private final T[] values;
-    private final int mask;
+    private final AtomicReferenceArray<Entry<T>> entries;
+    private final long[] lastAccess; // Per-slot recency, only used as an eviction heuristic, so racy reads and writes are acceptable
+    private final int setMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
-    @SuppressWarnings("unchecked")
     public FastConcurrentCache(int size)
     {
-        size = Mth.smallestEncompassingPowerOfTwo(size);
-
-        this.mask = size - 1;
-        this.keys = new long[size];
-        this.values = (T[]) new Object[size];
+        size = Math.max(WAYS, Mth.smallestEncompassingPowerOfTwo(size));
 
-        Arrays.fill(this.keys, Long.MIN_VALUE);
+        this.setMask = (size / WAYS) - 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.lastAccess = new long[size];
     }
 
     @Nullable
     public T getIfPresent(int x, int z)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.readLock();
+        final int base = indexOfSet(key);
 
-        T t = null;
-        if (keys[index] == key)
+        for (int way = 0; way < WAYS; way++)
         {
-            t = values[index];
+            final Entry<T> entry = entries.getAcquire(base + way);
+            if (entry != null && entry.key() == key)
+            {
+                touch(base, way);
+                hits.increment();
+                return entry.value();
+            }
         }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * @return {@code true} if an entry is present for {@code (x, z)}. Unlike {@link #getIfPresent(int, int)}, this does not count as an access, so it does not affect eviction or the hit and miss counters.
+     */
+    public boolean contains(int x, int z)
+    {
+        final long key = ChunkPos.asLong(x, z);
+        final int base = indexOfSet(key);
 
-        lock.unlockRead(stamp);
-        return t;
+        for (int way = 0; way < WAYS; way++)
+        {
+            final Entry<T> entry = entries.getAcquire(base + way);
+            if (entry != null && entry.key() == key)
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void set(int x, int z, T value)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.writeLock();
+        final int base = indexOfSet(key);
+        final Entry<T> entry = new Entry<>(key, value);
+
+        // Prefer, in order: a slot which already holds this key, an empty slot, and finally the least recently used slot.
+        int victim = 0;
+        long oldestAccess = Long.MAX_VALUE;
+        for (int way = 0; way < WAYS; way++)
+        {
+            final Entry<T> existing = entries.getAcquire(base + way);
+            if (existing == null || existing.key() == key)
+            {
+                victim = way;
+                break;
+            }
+            if (lastAccess[base + way] < oldestAccess)
+            {
+                oldestAccess = lastAccess[base + way];
+                victim = way;
+            }
+        }
+
+        final Entry<T> previous = entries.getAndSet(base + victim, entry);
+        if (previous != null && previous.key() != key)
+        {
+            evictions.increment();
+        }
+        touch(base, victim);
+    }
+
+    /**
+     * @return The maximum number of entries this cache can hold.
+     */
+    public int capacity()
+    {
+        return entries.length();
+    }
+
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    public long misses()
+    {
+        return misses.sum();
+    }
 
-        keys[index] = key;
-        values[index] = value;
+    public long evictions()
+    {
+        return evictions.sum();
+    }
 
-        lock.unlockWrite(stamp);
+    @Override
+    public String toString()
+    {
+        final long hits = hits(), misses = misses();
+        return "FastConcurrentCache[capacity=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f]".formatted(capacity(), hits, misses, evictions(), hits + misses == 0 ? 0 : (double) hits / (hits + misses));
     }
+
+    private int indexOfSet(long key)
+    {
+        return ((int) HashCommon.mix(key) & setMask) * WAYS;
+    }
+
+    /**
+     * Marks the slot at {@code base + way} as the most recently used slot in its set. This only writes if the slot is not already the most recent, so repeated hits on a hot entry do not dirty the cache line.
+     */
+    private void touch(int base, int way)
+    {
+        final long current = lastAccess[base + way];
+        long newestOther = Long.MIN_VALUE;
+        for (int i = 0; i < WAYS; i++)
+        {
+            if (i != way)
+            {
+                newestOther = Math.max(newestOther, lastAccess[base + i]);
+            }
+        }
+        if (newestOther >= current)
+        {
+            lastAccess[base + way] = newestOther + 1;
+        }
+    }
+
+    record Entry<T>(long key, T value) {}
 }
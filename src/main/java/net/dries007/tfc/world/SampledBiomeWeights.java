@@ -0,0 +1,83 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * All the {@link BiomeWeights} needed to sample the biomes for a single chunk. These are pooled and reused, as a chunk will otherwise allocate and discard ~70 weight maps during sampling.
+ * <p>
+ * This is a pool, rather than thread local, as the weights are sampled on the thread which starts generating a chunk, but are then read by the noise filler on a worker thread. An instance is {@link #acquire() acquired} before sampling, and must be {@link #release() released} by whoever is the last to read it.
+ */
+public final class SampledBiomeWeights
+{
+    private static final Queue<SampledBiomeWeights> POOL = new ConcurrentLinkedQueue<>();
+
+    public static SampledBiomeWeights acquire()
+    {
+        final SampledBiomeWeights weights = POOL.poll();
+        return weights != null ? weights : new SampledBiomeWeights();
+    }
+
+    private final BiomeWeights[] quart; // 7x7 array of biome weights, at quart pos resolution
+    private final BiomeWeights[] chunk; // 4x4 array of biome weights, at chunk resolution
+    private final BiomeWeights scratch; // Used while composing the chunk and quart weights
+    private final BiomeWeights column; // Used by the height filler for individual column weights
+
+    private SampledBiomeWeights()
+    {
+        this.quart = create(7 * 7);
+        this.chunk = create(4 * 4);
+        this.scratch = new BiomeWeights();
+        this.column = new BiomeWeights();
+    }
+
+    /**
+     * @param index An index into a 7x7 grid, in quart positions relative to the target chunk, where (1, 1) is the target chunk origin.
+     */
+    public BiomeWeights quart(int index)
+    {
+        return quart[index];
+    }
+
+    /**
+     * @param index An index into a 4x4 grid, in chunk positions relative to the target chunk, where (1, 1) is the target chunk.
+     */
+    public BiomeWeights chunk(int index)
+    {
+        return chunk[index];
+    }
+
+    public BiomeWeights scratch()
+    {
+        return scratch;
+    }
+
+    public BiomeWeights column()
+    {
+        return column;
+    }
+
+    /**
+     * Returns this to the pool. This must not be used after it is released.
+     */
+    public void release()
+    {
+        POOL.offer(this);
+    }
+
+    private static BiomeWeights[] create(int size)
+    {
+        final BiomeWeights[] array = new BiomeWeights[size];
+        for (int i = 0; i < size; i++)
+        {
+            array[i] = new BiomeWeights();
+        }
+        return array;
+    }
+}
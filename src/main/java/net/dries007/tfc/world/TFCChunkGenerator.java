@@ -6,8 +6,7 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.nio.file.Path;
 import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
@@ -15,27 +14,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.function.ToIntFunction;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 import com.google.common.collect.ImmutableMap;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import it.unimi.dsi.fastutil.ints.IntArraySet;
-import it.unimi.dsi.fastutil.ints.IntSet;
-import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
-import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
-import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.CrashReport;
 import net.minecraft.ReportedException;
 import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
-import net.minecraft.core.HolderSet;
 import net.minecraft.core.QuartPos;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -63,6 +53,7 @@ import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
 import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.levelgen.Aquifer;
 import net.minecraft.world.level.levelgen.Beardifier;
 import net.minecraft.world.level.levelgen.GenerationStep;
@@ -83,12 +74,14 @@ import net.minecraft.world.level.levelgen.placement.PlacedFeature;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraftforge.registries.DeferredRegister;
+import org.jetbrains.annotations.VisibleForTesting;
 
+import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.mixin.accessor.ChunkAccessAccessor;
 import net.dries007.tfc.mixin.accessor.ChunkGeneratorAccessor;
 import net.dries007.tfc.util.Helpers;
-import net.dries007.tfc.world.biome.BiomeBlendType;
 import net.dries007.tfc.world.biome.BiomeExtension;
 import net.dries007.tfc.world.biome.BiomeSourceExtension;
 import net.dries007.tfc.world.biome.TFCBiomes;
@@ -97,6 +90,7 @@ import net.dries007.tfc.world.chunkdata.ChunkDataGenerator;
 import net.dries007.tfc.world.chunkdata.ChunkDataProvider;
 import net.dries007.tfc.world.chunkdata.RegionChunkDataGenerator;
 import net.dries007.tfc.world.chunkdata.RockData;
+import net.dries007.tfc.world.feature.vein.VeinCache;
 import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.layer.framework.AreaFactory;
 import net.dries007.tfc.world.layer.framework.ConcurrentArea;
@@ -130,110 +124,48 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         CHUNK_GENERATOR.register("overworld", () -> CODEC);
     }
 
-    /**
-     * Composes two levels of sampled weights. It takes two maps of two different resolutions, and re-weights the higher resolution one by replacing specific groups of samples with the respective weights from the lower resolution map.
-     * Each element of the higher resolution map is replaced with a proportional average of the same group which is present in the lower resolution map.
-     * This has the effect of blending specific groups at closer distances than others, allowing for both smooth and sharp biome transitions.
-     * <p>
-     * Example:
-     * - Low resolution: 30% Plains, 40% Mountains, 30% Hills, 10% River
-     * - High resolution: 60% Plains, 40% River
-     * - Groups are "River" and "Not River"
-     * - For each element in the high resolution map:
-     * - 60% Plains: Group "Not River", and is replaced with 60% * (30% Plains, 40% Mountains, 30% Hills) / 90%
-     * - 50% River: Group "River", which is replaced with 40% * (10% River) / 10%
-     * - Result: 18% Plains, 24% Mountains, 18% Hills, 40% River
-     */
-    public static <T> void composeSampleWeights(Object2DoubleMap<T> weightMap, Object2DoubleMap<T> groupWeightMap, ToIntFunction<T> groupFunction, int groups)
-    {
-        // First, we need to calculate the maximum weight per group
-        double[] maxWeights = new double[groups];
-        for (Object2DoubleMap.Entry<T> entry : groupWeightMap.object2DoubleEntrySet())
-        {
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1)
-            {
-                maxWeights[group] += entry.getDoubleValue();
-            }
-        }
-
-        // Then, we iterate through the smaller weight map and identify the actual weight that needs to be replaced with each group
-        double[] actualWeights = new double[groups];
-        ObjectIterator<Object2DoubleMap.Entry<T>> iterator = weightMap.object2DoubleEntrySet().iterator();
-        while (iterator.hasNext())
-        {
-            Object2DoubleMap.Entry<T> entry = iterator.next();
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1)
-            {
-                actualWeights[group] += entry.getDoubleValue();
-                iterator.remove();
-            }
-        }
-
-        // Finally, insert the weights for each group as a portion of the actual weight
-        for (Object2DoubleMap.Entry<T> entry : groupWeightMap.object2DoubleEntrySet())
-        {
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1 && actualWeights[group] > 0 && maxWeights[group] > 0)
-            {
-                weightMap.put(entry.getKey(), entry.getDoubleValue() * actualWeights[group] / maxWeights[group]);
-            }
-        }
-    }
-
-    public static <T> void sampleBiomesCornerContribution(Object2DoubleMap<T> accumulator, Object2DoubleMap<T> corner, double t)
-    {
-        if (t > 0)
-        {
-            for (Object2DoubleMap.Entry<T> entry : corner.object2DoubleEntrySet())
-            {
-                accumulator.mergeDouble(entry.getKey(), entry.getDoubleValue() * t, Double::sum);
-            }
-        }
-    }
-
     private static DataResult<BiomeSourceExtension> guardBiomeSource(BiomeSource source)
     {
         return source instanceof BiomeSourceExtension s ? DataResult.success(s) : DataResult.error(() -> "Must be a " + BiomeSourceExtension.class.getSimpleName());
     }
 
     /**
-     * @param pos           The target chunk pos.
-     * @param biomeSampler  A sampler for biomes, in block coordinates.
-     * @param groupFunction A function to access a {@link BiomeBlendType} from a {@link Biome}.
-     * @return A 7x7 array of sampled biome weights, at quart pos resolution, where the (0, 0) index aligns to the (-1, -1) quart position relative to the target chunk.
+     * @param pos               The target chunk pos.
+     * @param chunkBiomeSampler A sampler for biomes, in block coordinates, which will be queried at chunk aligned positions.
+     * @param quartBiomeSampler A sampler for biomes, in block coordinates, which will be queried at quart aligned positions.
+     * @return A pooled set of sampled biome weights, which must be {@link SampledBiomeWeights#release() released} once no longer used. The {@link SampledBiomeWeights#quart(int)} weights are a 7x7 array of sampled biome weights, at quart pos resolution, where the (0, 0) index aligns to the (-1, -1) quart position relative to the target chunk.
      */
-    private static <T> Object2DoubleMap<T>[] sampleBiomes(ChunkPos pos, Sampler<T> biomeSampler, Function<T, BiomeBlendType> groupFunction)
+    @VisibleForTesting
+    public static SampledBiomeWeights sampleBiomes(ChunkPos pos, Sampler<BiomeExtension> chunkBiomeSampler, Sampler<BiomeExtension> quartBiomeSampler)
     {
+        final SampledBiomeWeights sampled = SampledBiomeWeights.acquire();
+
         // First, sample biomes at chunk distance, in a 4x4 grid centered on the target chunk.
         // These are used to build the large-scale biome blending radius
-        final Object2DoubleMap<T>[] chunkBiomeWeightArray = newWeightArray(4 * 4);
         final int chunkX = pos.getMinBlockX(), chunkZ = pos.getMinBlockZ(); // Block coordinates
         for (int x = 0; x < 4; x++)
         {
             for (int z = 0; z < 4; z++)
             {
                 // x, z = 0, 0 is the -1, -1 chunk relative to chunkX, chunkZ
-                final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
-                chunkBiomeWeightArray[x | (z << 2)] = chunkBiomeWeight;
-                sampleBiomesAtPositionWithKernel(chunkBiomeWeight, biomeSampler, KERNEL_9x9, 4, chunkX, chunkZ, x - 1, z - 1);
+                final BiomeWeights chunkBiomeWeight = sampled.chunk(x | (z << 2));
+                chunkBiomeWeight.clear();
+                sampleBiomesAtPositionWithKernel(chunkBiomeWeight, chunkBiomeSampler, KERNEL_9x9, 4, chunkX, chunkZ, x - 1, z - 1);
             }
         }
 
         // A 7x7 grid, in quart positions relative to the target chunk, where (1, 1) is the target chunk origin.
-        final Object2DoubleMap<T>[] quartBiomeWeightArray = newWeightArray(7 * 7);
-        final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
-
+        final BiomeWeights chunkBiomeWeight = sampled.scratch();
         for (int x = 0; x < 7; x++)
         {
             for (int z = 0; z < 7; z++)
             {
                 // Reset
-                final Object2DoubleMap<T> quartBiomeWeight = new Object2DoubleOpenHashMap<>();
+                final BiomeWeights quartBiomeWeight = sampled.quart(x + 7 * z);
+                quartBiomeWeight.clear();
                 chunkBiomeWeight.clear();
 
-                sampleBiomesAtPositionWithKernel(quartBiomeWeight, biomeSampler, KERNEL_9x9, 2, chunkX, chunkZ, x - 1, z - 1);
+                sampleBiomesAtPositionWithKernel(quartBiomeWeight, quartBiomeSampler, KERNEL_9x9, 2, chunkX, chunkZ, x - 1, z - 1);
 
                 // Calculate contribution from the four corners of the 16x16 grid. First, calculate the current grid cell coordinates.
                 final int x1 = chunkX + ((x - 1) << 2); // Block coordinates
@@ -245,27 +177,22 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final double lerpX = (x1 - (coordX << 4)) * (1 / 16d); // Deltas, in the range [0, 1)
                 final double lerpZ = (z1 - (coordZ << 4)) * (1 / 16d);
 
-                final int index16X = ((x1 - chunkX) >> 4) + 1; // Index into chunkBiomeWeightArray
+                final int index16X = ((x1 - chunkX) >> 4) + 1; // Index into the chunk weights
                 final int index16Z = ((z1 - chunkZ) >> 4) + 1;
 
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
+                chunkBiomeWeight.addAll(sampled.chunk(index16X | (index16Z << 2)), (1 - lerpX) * (1 - lerpZ));
+                chunkBiomeWeight.addAll(sampled.chunk((index16X + 1) | (index16Z << 2)), lerpX * (1 - lerpZ));
+                chunkBiomeWeight.addAll(sampled.chunk(index16X | ((index16Z + 1) << 2)), (1 - lerpX) * lerpZ);
+                chunkBiomeWeight.addAll(sampled.chunk((index16X + 1) | ((index16Z + 1) << 2)), lerpX * lerpZ);
 
                 // Compose chunk weights -> wide quart weights.
-                composeSampleWeights(quartBiomeWeight, chunkBiomeWeight, biome -> {
-                    final BiomeBlendType group = groupFunction.apply(biome);
-                    return group.ordinal();
-                }, BiomeBlendType.SIZE);
-
-                quartBiomeWeightArray[x + 7 * z] = quartBiomeWeight;
+                quartBiomeWeight.composeWith(chunkBiomeWeight);
             }
         }
-        return quartBiomeWeightArray;
+        return sampled;
     }
 
-    private static <T> void sampleBiomesAtPositionWithKernel(Object2DoubleMap<T> weights, Sampler<T> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
+    private static void sampleBiomesAtPositionWithKernel(BiomeWeights weights, Sampler<BiomeExtension> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
     {
         final int kernelRadius = kernel.radius();
         final int kernelWidth = kernel.width();
@@ -276,18 +203,11 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final double weight = kernel.values()[(dx + kernelRadius) + (dz + kernelRadius) * kernelWidth];
                 final int blockX = chunkX + ((xOffsetInKernelBits + dx) << kernelBits); // Block positions
                 final int blockZ = chunkZ + ((zOffsetInKernelBits + dz) << kernelBits);
-                final T biome = biomeSampler.get(blockX, blockZ);
-                weights.mergeDouble(biome, weight, Double::sum);
+                weights.add(biomeSampler.get(blockX, blockZ), weight);
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Object2DoubleMap<T>[] newWeightArray(int size)
-    {
-        return (Object2DoubleMap<T>[]) new Object2DoubleMap[size]; // Avoid generic array warnings / errors
-    }
-
     // Properties set from codec
     private final BiomeSourceExtension customBiomeSource; // narrowed type from superclass
     private final Holder<NoiseGeneratorSettings> noiseSettings; // Supplier is resolved in constructor
@@ -295,11 +215,17 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     private final NoiseBasedChunkGenerator stupidMojangChunkGenerator; // Mojang fix your god awful deprecated carver nonsense
     private final FastConcurrentCache<TFCAquifer> aquiferCache;
+    private final DecorationPlanCache decorationPlans;
+    private final CarverStartCache carverStarts;
+    private final VeinCache veinCache;
 
     private ChunkDataProvider chunkDataProvider;
     private long noiseSamplerSeed;
     private SurfaceManager surfaceManager;
     private NoiseSampler noiseSampler;
+    private BiomeSampleCache chunkBiomeSamples; // Biome samples at chunk resolution, shared between neighbouring chunks
+    private BiomeSampleCache quartBiomeSamples; // Biome samples at quart resolution
+    private boolean buildSurfacesOnMainExecutor;
 
     public TFCChunkGenerator(BiomeSourceExtension biomeSource, Holder<NoiseGeneratorSettings> noiseSettings, Settings settings)
     {
@@ -311,6 +237,9 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
         this.stupidMojangChunkGenerator = new NoiseBasedChunkGenerator(biomeSource.self(), noiseSettings);
         this.aquiferCache = new FastConcurrentCache<>(256);
+        this.decorationPlans = new DecorationPlanCache();
+        this.carverStarts = new CarverStartCache(4096);
+        this.veinCache = new VeinCache(1024);
     }
 
     @Override
@@ -331,6 +260,12 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return chunkDataProvider;
     }
 
+    @Override
+    public VeinCache veinCache()
+    {
+        return veinCache;
+    }
+
     @Override
     public Aquifer getOrCreateAquifer(ChunkAccess chunk)
     {
@@ -352,7 +287,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         final long seed = level.getSeed();
         final RandomSource random = new XoroshiroRandomSource(seed);
 
-        final RegionGenerator regionGenerator = new RegionGenerator(settings, random);
+        final Path regionStoreRoot = TFCConfig.COMMON.enableRegionStore.get() ? DimensionType.getStorageFolder(level.dimension(), level.getServer().getWorldPath(LevelResource.ROOT)).resolve("data").resolve("tfc_regions") : null;
+        final RegionGenerator regionGenerator = new RegionGenerator(settings, random, regionStoreRoot, TFCConfig.COMMON.enableRegionPrefetching.get());
         final ChunkDataGenerator chunkDataGenerator = RegionChunkDataGenerator.create(random.nextLong(), settings.rockLayerSettings(), regionGenerator);
         final AreaFactory factory = TFCLayers.createRegionBiomeLayer(regionGenerator, random.nextLong());
         final ConcurrentArea<BiomeExtension> biomeLayer = new ConcurrentArea<>(factory, TFCLayers::getFromLayerId);
@@ -361,14 +297,19 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         this.noiseSampler = new NoiseSampler(noiseSettings.get().noiseSettings(), random.nextLong(), level.registryAccess().lookupOrThrow(Registries.NOISE));
         this.chunkDataProvider = new ChunkDataProvider(chunkDataGenerator);
         this.surfaceManager = new SurfaceManager(seed);
+        this.chunkBiomeSamples = new BiomeSampleCache(this::sampleBiomeNoRiver, 4, 64);
+        this.quartBiomeSamples = new BiomeSampleCache(this::sampleBiomeNoRiver, 2, 1024);
+        this.buildSurfacesOnMainExecutor = TFCConfig.COMMON.buildSurfacesOnMainExecutor.get();
 
         this.customBiomeSource.initRandomState(regionGenerator, biomeLayer);
     }
 
+    /**
+     * @return A height filler for the chunk. The filler holds pooled biome weights, and so should be {@link ChunkHeightFiller#release() released} once it is no longer used.
+     */
     public ChunkHeightFiller createHeightFillerForChunk(ChunkPos pos)
     {
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(pos, this::sampleBiomeNoRiver, BiomeExtension::biomeBlendType);
-        return new ChunkHeightFiller(createBiomeSamplersForChunk(), biomeWeights);
+        return new ChunkHeightFiller(createBiomeSamplersForChunk(), sampleBiomes(pos, chunkBiomeSamples, quartBiomeSamples));
     }
 
     @Override
@@ -414,25 +355,25 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             for (int offsetZ = -8; offsetZ <= 8; ++offsetZ)
             {
                 final ChunkPos offsetChunkPos = new ChunkPos(chunkPos.x + offsetX, chunkPos.z + offsetZ);
-                final ChunkAccess offsetChunk = level.getChunk(offsetChunkPos.x, offsetChunkPos.z);
+                final CarverStartCache.Start[] starts = carverStarts.get(seed, offsetChunkPos.x, offsetChunkPos.z, () -> {
+                    final ChunkAccess offsetChunk = level.getChunk(offsetChunkPos.x, offsetChunkPos.z);
 
-                @SuppressWarnings("deprecation")
-                final Iterable<Holder<ConfiguredWorldCarver<?>>> iterable = offsetChunk
-                    .carverBiome(() -> customBiomeSource.getBiome(QuartPos.fromBlock(offsetChunkPos.getMinBlockX()), QuartPos.fromBlock(offsetChunkPos.getMinBlockZ())).value().getGenerationSettings())
-                    .getCarvers(step);
+                    @SuppressWarnings("deprecation")
+                    final Iterable<Holder<ConfiguredWorldCarver<?>>> iterable = offsetChunk
+                        .carverBiome(() -> customBiomeSource.getBiome(QuartPos.fromBlock(offsetChunkPos.getMinBlockX()), QuartPos.fromBlock(offsetChunkPos.getMinBlockZ())).value().getGenerationSettings())
+                        .getCarvers(step);
+                    return iterable;
+                }, fork, random);
 
-                int i = 1;
-                for (Holder<ConfiguredWorldCarver<?>> holder : iterable)
+                for (CarverStartCache.Start start : starts)
                 {
-                    final long chunkSeed = fork.at(offsetChunkPos.x, i, offsetChunkPos.z).nextLong();
-
-                    random.setSeed(chunkSeed);
-                    final ConfiguredWorldCarver<?> carver = holder.value();
+                    // Replay the start check, so the random is in the same state as when the carver started
+                    random.setSeed(start.seed());
+                    final ConfiguredWorldCarver<?> carver = start.carver();
                     if (carver.isStartChunk(random))
                     {
                         carver.carve(context, chunk, customBiomeManager::getBiome, random, aquifer, offsetChunkPos, carvingMask);
                     }
-                    i++;
                 }
             }
         }
@@ -448,10 +389,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         final Registry<Structure> structureFeatures = level.registryAccess().registryOrThrow(Registries.STRUCTURE);
         final Registry<PlacedFeature> placedFeatures = level.registryAccess().registryOrThrow(Registries.PLACED_FEATURE);
 
-        final Map<Integer, List<Structure>> structureFeaturesByStep = structureFeatures.stream()
-            .collect(Collectors.groupingBy(feature -> feature.step().ordinal()));
-
         final List<FeatureSorter.StepFeatureData> orderedFeatures = ((ChunkGeneratorAccessor) this).accessor$getFeaturesPerStep().get();
+        final DecorationPlanCache.Tables tables = decorationPlans.get(structureFeatures, orderedFeatures);
         final WorldgenRandom random = new WorldgenRandom(new XoroshiroRandomSource(RandomSupport.generateUniqueSeed()));
         final long baseSeed = Helpers.hash(128739412341L, originPos);
 
@@ -464,12 +403,14 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             }
         });
 
-        for (int decorationIndex = 0; decorationIndex < Math.max(DECORATION_STEPS, orderedFeatures.size()); ++decorationIndex)
+        final int[][] plan = tables.plan(level, allAdjacentBiomes);
+
+        for (int decorationIndex = 0; decorationIndex < tables.steps(); ++decorationIndex)
         {
             if (structureFeatureManager.shouldGenerateStructures())
             {
                 int featureIndex = 0;
-                for (Structure feature : structureFeaturesByStep.getOrDefault(decorationIndex, Collections.emptyList()))
+                for (Structure feature : tables.structures(decorationIndex))
                 {
                     Helpers.seedLargeFeatures(random, baseSeed, featureIndex, decorationIndex);
 
@@ -493,25 +434,9 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
             if (decorationIndex < orderedFeatures.size())
             {
-                final IntSet featureIndices = new IntArraySet();
-                for (Biome biome : allAdjacentBiomes)
-                {
-                    List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
-                    if (decorationIndex < featuresPerBiome.size())
-                    {
-                        final HolderSet<PlacedFeature> featuresPerBiomeAtStep = featuresPerBiome.get(decorationIndex);
-                        final FeatureSorter.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
-                        for (Holder<PlacedFeature> holder : featuresPerBiomeAtStep)
-                        {
-                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
-                        }
-                    }
-                }
-
-                final int[] sortedIndices = featureIndices.toIntArray();
+                final int[] sortedIndices = plan[decorationIndex];
                 final FeatureSorter.StepFeatureData step = orderedFeatures.get(decorationIndex);
 
-                Arrays.sort(sortedIndices);
                 for (int featureIndex : sortedIndices)
                 {
                     final PlacedFeature feature = step.features().get(featureIndex);
@@ -599,25 +524,48 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             sections.add(section);
         }
 
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(chunkPos, this::sampleBiomeNoRiver, BiomeExtension::biomeBlendType);
+        final SampledBiomeWeights biomeWeights = sampleBiomes(chunkPos, chunkBiomeSamples, quartBiomeSamples);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
         final ChunkNoiseFiller filler = new ChunkNoiseFiller((ProtoChunk) chunk, biomeWeights, customBiomeSource, createBiomeSamplersForChunk(), createRiverSamplersForChunk(), noiseSampler, baseBlockSource, settings, getSeaLevel(), Beardifier.forStructuresInChunk(structureFeatureManager, chunkPos));
 
-        return CompletableFuture.supplyAsync(() -> {
-            filler.sampleAquiferSurfaceHeight(this::sampleBiomeNoRiver);
-            chunkData.generateFull(filler.surfaceHeight(), filler.aquifer().surfaceHeights());
-            chunkData.getRockData().useCache(chunkPos);
-            filler.fillFromNoise();
+        final CompletableFuture<ChunkAccess> future = CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                filler.sampleAquiferSurfaceHeight(quartBiomeSamples);
+                chunkData.generateFull(filler.surfaceHeight(), filler.aquifer().surfaceHeights());
+                chunkData.getRockData().useCache(chunkPos);
+                filler.fillFromNoise();
 
-            aquiferCache.set(chunkPos.x, chunkPos.z, filler.aquifer());
+                aquiferCache.set(chunkPos.x, chunkPos.z, filler.aquifer());
+            }
+            finally
+            {
+                // Unlock before surfaces are built, as they use locks directly
+                sections.forEach(LevelChunkSection::release);
+            }
 
+            if (!buildSurfacesOnMainExecutor)
+            {
+                // Nothing else can access this chunk until this future completes, so the surface can be built on the worker as well
+                buildSurface(actualLevel, chunk, chunkData, filler, random, settings);
+            }
             return chunk;
-        }, Util.backgroundExecutor()).whenCompleteAsync((ret, error) -> {
-            // Unlock before surfaces are built, as they use locks directly
-            sections.forEach(LevelChunkSection::release);
+        }, Util.backgroundExecutor());
+
+        if (buildSurfacesOnMainExecutor)
+        {
+            return future.whenCompleteAsync((ret, error) -> buildSurface(actualLevel, chunk, chunkData, filler, random, settings), mainExecutor);
+        }
+        return future;
+    }
+
+    private void buildSurface(LevelAccessor level, ChunkAccess chunk, ChunkData chunkData, ChunkNoiseFiller filler, RandomSource random, ChunkNoiseSamplingSettings settings)
+    {
+        // The slope map is the last use of the sampled biome weights
+        final double[] slopeMap = filler.createSlopeMap();
+        filler.release();
 
-            surfaceManager.buildSurface(actualLevel, chunk, rockLayerSettings(), chunkData, filler.localBiomes(), filler.localBiomesNoRivers(), filler.localBiomeWeights(), filler.createSlopeMap(), random, getSeaLevel(), settings.minY());
-        }, mainExecutor);
+        surfaceManager.buildSurface(level, chunk, rockLayerSettings(), chunkData, filler.localBiomes(), filler.localBiomesNoRivers(), filler.localBiomeWeights(), slopeMap, random, getSeaLevel(), settings.minY());
     }
 
     @Override
@@ -636,7 +584,10 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     public int getBaseHeight(int x, int z, Heightmap.Types type, LevelHeightAccessor level, RandomState state)
     {
         final ChunkPos pos = new ChunkPos(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
-        return (int) createHeightFillerForChunk(pos).sampleHeight(x, z);
+        final ChunkHeightFiller filler = createHeightFillerForChunk(pos);
+        final double height = filler.sampleHeight(x, z);
+        filler.release();
+        return (int) height;
     }
 
     @Override
@@ -48,6 +48,7 @@ public class BiomeExtension
     @Nullable private List<HolderSet<PlacedFeature>> flattenedFeatures;
     @Nullable private Set<PlacedFeature> flattenedFeatureSet;
     @Nullable private Biome prevBiome;
+    private int id = -1;
 
     BiomeExtension(ResourceKey<Biome> key, @Nullable LongFunction<BiomeNoiseSampler> noiseFactory, SurfaceBuilderFactory surfaceBuilderFactory, AquiferLookahead aquiferSurfaceHeight, BiomeBlendType biomeBlendType, RiverBlendType riverBlendType, boolean salty, boolean volcanic, int volcanoRarity, int volcanoBasaltHeight, boolean spawnable, boolean rivers, boolean shore, boolean sandyRiverShores)
     {
@@ -72,6 +73,19 @@ public class BiomeExtension
         return key;
     }
 
+    /**
+     * @return A compact, dense, id for this biome extension, in {@code [0, TFCBiomes.getExtensionCount())}, assigned in registration order.
+     */
+    public int id()
+    {
+        return id;
+    }
+
+    void setId(int id)
+    {
+        this.id = id;
+    }
+
     public BiomeBlendType biomeBlendType()
     {
         return biomeBlendType;
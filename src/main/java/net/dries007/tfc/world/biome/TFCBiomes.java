@@ -6,8 +6,10 @@
 
 package net.dries007.tfc.world.biome;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import net.minecraft.core.Registry;
@@ -35,6 +37,7 @@ import static net.dries007.tfc.world.biome.BiomeBuilder.*;
 public final class TFCBiomes
 {
     private static final Map<ResourceKey<Biome>, BiomeExtension> EXTENSIONS = new IdentityHashMap<>();
+    private static final List<BiomeExtension> EXTENSIONS_BY_ID = new ArrayList<>();
 
     // Aquatic biomes
     public static final BiomeExtension OCEAN = register("ocean", builder().heightmap(seed -> BiomeNoise.ocean(seed, -26, -12)).surface(OceanSurfaceBuilder.INSTANCE).aquiferHeightOffset(-24).salty().type(BiomeBlendType.OCEAN).noRivers()); // Ocean biome found near continents.
@@ -114,6 +117,19 @@ public final class TFCBiomes
         return EXTENSIONS.keySet().stream().map(ResourceKey::location).toList();
     }
 
+    /**
+     * @return The number of biome extensions, which is also the upper bound of {@link BiomeExtension#id()}
+     */
+    public static int getExtensionCount()
+    {
+        return EXTENSIONS_BY_ID.size();
+    }
+
+    public static BiomeExtension getExtensionById(int id)
+    {
+        return EXTENSIONS_BY_ID.get(id);
+    }
+
     @Nullable
     public static BiomeExtension getById(ResourceLocation id)
     {
@@ -135,6 +151,8 @@ public final class TFCBiomes
         final BiomeExtension variants = builder.build(key);
 
         EXTENSIONS.put(key, variants);
+        variants.setId(EXTENSIONS_BY_ID.size());
+        EXTENSIONS_BY_ID.add(variants);
 
         return variants;
     }
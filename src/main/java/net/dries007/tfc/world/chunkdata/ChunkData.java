@@ -8,6 +8,7 @@ package net.dries007.tfc.world.chunkdata;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.ChunkPos;
@@ -37,20 +38,25 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
 
     public static ChunkData get(LevelReader level, BlockPos pos)
     {
-        return get(level, new ChunkPos(pos));
+        return get(level, SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
     }
 
     /**
      * Called to get chunk data when a world context is available.
      */
-    @SuppressWarnings("deprecation")
     public static ChunkData get(LevelReader level, ChunkPos pos)
+    {
+        return get(level, pos.x, pos.z);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static ChunkData get(LevelReader level, int chunkX, int chunkZ)
     {
         // Query cache first, picking the correct cache for the current logical side
-        ChunkData data = ChunkDataCache.get(level).get(pos);
+        ChunkData data = ChunkDataCache.get(level).get(ChunkPos.asLong(chunkX, chunkZ));
         if (data == null)
         {
-            return getCapability(level.hasChunk(pos.x, pos.z) ? level.getChunk(pos.getWorldPosition()) : null).orElse(ChunkData.EMPTY);
+            return getCapability(level.hasChunk(chunkX, chunkZ) ? level.getChunk(chunkX, chunkZ) : null).orElse(ChunkData.EMPTY);
         }
         return data;
     }
@@ -80,6 +86,7 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
     private ForestType forestType;
     private float forestWeirdness;
     private float forestDensity;
+    @Nullable private HydrationField hydrationField; // Not saved or synced, as it is derived from the blocks in the level
 
     public ChunkData(ChunkPos pos)
     {
@@ -150,6 +157,19 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
         return forestDensity;
     }
 
+    /**
+     * @return The hydration field for this chunk, or {@code null} for the empty chunk data, which is shared by all chunks without data.
+     */
+    @Nullable
+    public HydrationField getHydrationField()
+    {
+        if (hydrationField == null)
+        {
+            hydrationField = new HydrationField(pos);
+        }
+        return hydrationField;
+    }
+
     public Status status()
     {
         return status;
@@ -306,6 +326,10 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
         @Override
         public void deserializeNBT(CompoundTag nbt) { error(); }
 
+        @Nullable
+        @Override
+        public HydrationField getHydrationField() { return null; }
+
         @Override
         public String toString()
         {
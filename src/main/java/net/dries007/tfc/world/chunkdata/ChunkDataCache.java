@@ -6,11 +6,13 @@
 
 package net.dries007.tfc.world.chunkdata;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArraySet;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.LevelReader;
@@ -24,12 +26,16 @@ import net.dries007.tfc.util.Helpers;
  * Sided cache of chunk data instances, for when a world context is unavailable.
  * Automatically synchronized on chunk watch / unwatch events, and updated on chunk load and unload.
  * This is only valid in the overworld.
+ * <p>
+ * The cache is keyed by {@link ChunkPos#toLong()}, and is safe to access from any thread. It is split into a number of independently locked stripes, each of which is a primitive, open addressing, hash map, so concurrent lookups of different chunks rarely contend.
  */
 public final class ChunkDataCache
 {
+    private static final int STRIPES = 32; // Must be a power of two
+
     /**
      * This is a cache of client side chunk data, used for when there is no world context available.
-     * It is synced on chunk watch / unwatch
+     * It is synced on chunk watch / unwatch. It is not bounded, as a watch may arrive before the chunk is loaded, in which case the entry here is the only copy of that data until the chunk attaches its capability.
      */
     public static final ChunkDataCache CLIENT = new ChunkDataCache("client");
 
@@ -53,75 +59,149 @@ public final class ChunkDataCache
         return Helpers.isClientSide(world) ? CLIENT : SERVER;
     }
 
-    private final Map<ChunkPos, ChunkData> cache;
+    private final Long2ObjectOpenHashMap<ChunkData>[] stripes;
     private final String name;
 
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
     private ChunkDataCache(String name)
     {
         this.name = name;
-        this.cache = new HashMap<>();
+        this.stripes = new Long2ObjectOpenHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++)
+        {
+            stripes[i] = new Long2ObjectOpenHashMap<>();
+        }
     }
 
     @Nullable
     public ChunkData get(ChunkPos pos)
     {
-        return cache.get(pos);
+        return get(pos.toLong());
+    }
+
+    @Nullable
+    public ChunkData get(long pos)
+    {
+        final Long2ObjectOpenHashMap<ChunkData> stripe = stripe(pos);
+        final ChunkData data;
+        synchronized (stripe)
+        {
+            data = stripe.get(pos);
+        }
+        (data != null ? hits : misses).increment();
+        return data;
     }
 
     @Nullable
     public ChunkData remove(ChunkPos pos)
     {
-        return cache.remove(pos);
+        final long key = pos.toLong();
+        final Long2ObjectOpenHashMap<ChunkData> stripe = stripe(key);
+        synchronized (stripe)
+        {
+            return stripe.remove(key);
+        }
     }
 
     public void update(ChunkPos pos, ChunkData data)
     {
-        cache.put(pos, data);
+        final long key = pos.toLong();
+        final Long2ObjectOpenHashMap<ChunkData> stripe = stripe(key);
+        synchronized (stripe)
+        {
+            stripe.put(key, data);
+        }
     }
 
     public ChunkData computeIfAbsent(ChunkPos pos, Function<ChunkPos, ChunkData> mappingFunction)
     {
-        return cache.computeIfAbsent(pos, mappingFunction);
+        final long key = pos.toLong();
+        final Long2ObjectOpenHashMap<ChunkData> stripe = stripe(key);
+        synchronized (stripe)
+        {
+            ChunkData data = stripe.get(key);
+            if (data == null)
+            {
+                data = mappingFunction.apply(pos);
+                stripe.put(key, data);
+            }
+            return data;
+        }
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for (Long2ObjectOpenHashMap<ChunkData> stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    public long misses()
+    {
+        return misses.sum();
     }
 
     @Override
     public String toString()
     {
-        return "ChunkDataCache[" + name + ']';
+        return "ChunkDataCache[" + name + ", size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ']';
     }
 
+    private Long2ObjectOpenHashMap<ChunkData> stripe(long pos)
+    {
+        return stripes[(int) HashCommon.mix(pos) & (STRIPES - 1)];
+    }
+
+    /**
+     * Only accessed from the server thread.
+     */
     public static class WatchQueue
     {
-        private final Map<ChunkPos, Set<ServerPlayer>> queue;
+        private final Long2ObjectMap<Set<ServerPlayer>> queue;
 
         private WatchQueue()
         {
-            queue = new HashMap<>(256);
+            queue = new Long2ObjectOpenHashMap<>(256);
         }
 
         public void enqueueUnloadedChunk(ChunkPos pos, ServerPlayer player)
         {
-            queue.computeIfAbsent(pos, key -> new HashSet<>()).add(player);
+            queue.computeIfAbsent(pos.toLong(), key -> new ReferenceArraySet<>(1)).add(player);
         }
 
         public void dequeueChunk(ChunkPos pos, ServerPlayer player)
         {
-            Set<ServerPlayer> players = queue.get(pos);
+            final long key = pos.toLong();
+            final Set<ServerPlayer> players = queue.get(key);
             if (players != null)
             {
                 players.remove(player);
                 if (players.isEmpty())
                 {
-                    queue.remove(pos);
+                    queue.remove(key);
                 }
             }
         }
 
         public void dequeueLoadedChunk(ChunkPos pos, ChunkData data)
         {
-            if (queue.containsKey(pos))
+            final Set<ServerPlayer> players = queue.remove(pos.toLong());
+            if (players != null)
             {
-                final Set<ServerPlayer> players = queue.remove(pos);
                 for (ServerPlayer player : players)
                 {
                     PacketHandler.send(PacketDistributor.PLAYER.with(() -> player), data.getUpdatePacket());
@@ -129,4 +209,4 @@ public final class ChunkDataCache
             }
         }
     }
-}
\ No newline at end of file
+}
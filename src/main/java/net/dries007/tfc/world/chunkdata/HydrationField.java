@@ -0,0 +1,245 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.chunkdata;
+
+import java.util.Arrays;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.util.Helpers;
+
+/**
+ * The cost to reach the nearest hydrating fluid, from each position in a chunk, as used by {@link net.dries007.tfc.common.blocks.soil.FarmlandBlock#getHydration(LevelAccessor, BlockPos)}.
+ * A fluid at the same height costs one per block, horizontally, and a fluid one block below costs an additional two. Costs of {@link #MAX_COST} or more are treated as no nearby fluid.
+ * <p>
+ * Costs are computed for a whole layer of the chunk at once, the first time any position in that layer is queried. Layers are only cached if every chunk within reach of the layer is loaded, otherwise positions are scanned individually as before.
+ * Layers are kept up to date as fluids change, via {@link #onBlockChanged(Level, BlockPos, BlockState, BlockState)}. Added fluids only lower the costs around them, which is applied in place, while removed fluids discard the layers they affected.
+ * <p>
+ * This is owned by the {@link ChunkData} of a loaded chunk, and is not thread safe, so it may only be used from the thread of the level which owns it.
+ */
+public final class HydrationField
+{
+    public static final int MAX_COST = 5;
+    private static final int REACH = MAX_COST - 1; // Furthest distance at which a fluid has any effect
+
+    private static int tagsVersion; // Incremented whenever tags are reloaded, as the hydrating fluid tag may have changed
+
+    /**
+     * @return The cost to reach the nearest hydrating fluid from {@code pos}, in the range [0, {@link #MAX_COST}]
+     */
+    public static int getWaterCost(LevelAccessor level, ChunkData data, BlockPos pos)
+    {
+        if (level instanceof Level)
+        {
+            final HydrationField field = data.getHydrationField();
+            if (field != null)
+            {
+                final byte[] layer = field.getLayer(level, pos.getY());
+                if (layer != null)
+                {
+                    return layer[index(pos.getX(), pos.getZ())];
+                }
+            }
+        }
+        return scanWaterCost(level, pos);
+    }
+
+    /**
+     * Updates any cached layers which may be affected by a change of block, if that block gained or lost a hydrating fluid.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        final boolean wasHydrating = isHydrating(oldState.getFluidState()), isHydrating = isHydrating(newState.getFluidState());
+        if (wasHydrating == isHydrating)
+        {
+            return;
+        }
+
+        final int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        for (int chunkX = SectionPos.blockToSectionCoord(x - REACH); chunkX <= SectionPos.blockToSectionCoord(x + REACH); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(z - REACH); chunkZ <= SectionPos.blockToSectionCoord(z + REACH); chunkZ++)
+            {
+                if (level.hasChunk(chunkX, chunkZ))
+                {
+                    final HydrationField field = ChunkData.get(level, new ChunkPos(chunkX, chunkZ)).getHydrationField();
+                    if (field != null)
+                    {
+                        if (isHydrating)
+                        {
+                            field.addFluid(x, y, z);
+                        }
+                        else
+                        {
+                            field.layers.remove(y);
+                            field.layers.remove(y + 1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static void onTagsUpdated()
+    {
+        tagsVersion++;
+    }
+
+    /**
+     * Finds the cost to reach the nearest hydrating fluid from {@code pos}, by checking every position in reach.
+     */
+    private static int scanWaterCost(LevelAccessor level, BlockPos pos)
+    {
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        int minCostWater = MAX_COST;
+        for (int dx = -REACH; dx <= REACH; dx++)
+        {
+            for (int dz = -REACH; dz <= REACH; dz++)
+            {
+                for (int dy = -1; dy <= 0; dy++)
+                {
+                    final int cost = Math.max(Math.abs(dx), Math.abs(dz)) + (-2 * dy);
+                    if (cost < minCostWater && isHydrating(level.getFluidState(cursor.setWithOffset(pos, dx, dy, dz))))
+                    {
+                        minCostWater = cost;
+                        if (minCostWater == 1)
+                        {
+                            return 1;
+                        }
+                    }
+                }
+            }
+        }
+        return minCostWater;
+    }
+
+    private static boolean isHydrating(FluidState fluid)
+    {
+        return !fluid.isEmpty() && Helpers.isFluid(fluid, TFCTags.Fluids.HYDRATING);
+    }
+
+    private static int index(int x, int z)
+    {
+        return (x & 15) | ((z & 15) << 4);
+    }
+
+    private final ChunkPos pos;
+    private final Int2ObjectMap<byte[]> layers; // Costs for each position in the chunk, by height
+    private int version;
+
+    HydrationField(ChunkPos pos)
+    {
+        this.pos = pos;
+        this.layers = new Int2ObjectOpenHashMap<>();
+        this.version = tagsVersion;
+    }
+
+    /**
+     * @return The costs for every position in the layer at {@code y}, or {@code null} if they could not be computed without loading chunks.
+     */
+    private byte @Nullable [] getLayer(LevelAccessor level, int y)
+    {
+        if (version != tagsVersion)
+        {
+            layers.clear();
+            version = tagsVersion;
+        }
+
+        byte[] layer = layers.get(y);
+        if (layer == null)
+        {
+            layer = computeLayer(level, y);
+            if (layer != null)
+            {
+                layers.put(y, layer);
+            }
+        }
+        return layer;
+    }
+
+    private byte @Nullable [] computeLayer(LevelAccessor level, int y)
+    {
+        for (int chunkX = pos.x - 1; chunkX <= pos.x + 1; chunkX++)
+        {
+            for (int chunkZ = pos.z - 1; chunkZ <= pos.z + 1; chunkZ++)
+            {
+                if (!level.hasChunk(chunkX, chunkZ))
+                {
+                    return null;
+                }
+            }
+        }
+
+        final byte[] layer = new byte[16 * 16];
+        Arrays.fill(layer, (byte) MAX_COST);
+
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        final int minX = pos.getMinBlockX(), minZ = pos.getMinBlockZ();
+        for (int x = minX - REACH; x <= minX + 15 + REACH; x++)
+        {
+            for (int z = minZ - REACH; z <= minZ + 15 + REACH; z++)
+            {
+                if (isHydrating(level.getFluidState(cursor.set(x, y, z))))
+                {
+                    lowerCosts(layer, x, z, 0);
+                }
+                else if (isHydrating(level.getFluidState(cursor.set(x, y - 1, z))))
+                {
+                    lowerCosts(layer, x, z, 2);
+                }
+            }
+        }
+        return layer;
+    }
+
+    /**
+     * Updates the layers affected by a hydrating fluid added at {@code (x, y, z)}, which may be outside this chunk.
+     */
+    private void addFluid(int x, int y, int z)
+    {
+        final byte[] sameLayer = layers.get(y), aboveLayer = layers.get(y + 1);
+        if (sameLayer != null)
+        {
+            lowerCosts(sameLayer, x, z, 0);
+        }
+        if (aboveLayer != null)
+        {
+            lowerCosts(aboveLayer, x, z, 2);
+        }
+    }
+
+    /**
+     * Lowers the cost of every position in {@code layer} within reach of a fluid at {@code (x, z)}, with an initial cost of {@code baseCost}.
+     */
+    private void lowerCosts(byte[] layer, int x, int z, int baseCost)
+    {
+        final int reach = REACH - baseCost;
+        final int minX = pos.getMinBlockX(), minZ = pos.getMinBlockZ();
+        for (int cx = Math.max(x - reach, minX); cx <= Math.min(x + reach, minX + 15); cx++)
+        {
+            for (int cz = Math.max(z - reach, minZ); cz <= Math.min(z + reach, minZ + 15); cz++)
+            {
+                final int i = index(cx, cz);
+                final int cost = baseCost + Math.max(Math.abs(cx - x), Math.abs(cz - z));
+                if (cost < layer[i])
+                {
+                    layer[i] = (byte) cost;
+                }
+            }
+        }
+    }
+}
@@ -91,18 +91,18 @@ public record RegionChunkDataGenerator(
         final int gridX = Units.blockToGrid(blockX);
         final int gridZ = Units.blockToGrid(blockZ);
 
-        final Region.Point point00 = regionGenerator.getOrCreateRegionPoint(gridX, gridZ);
-        final Region.Point point01 = regionGenerator.getOrCreateRegionPoint(gridX, gridZ + 1);
-        final Region.Point point10 = regionGenerator.getOrCreateRegionPoint(gridX + 1, gridZ);
-        final Region.Point point11 = regionGenerator.getOrCreateRegionPoint(gridX + 1, gridZ + 1);
+        final Region.View point00 = regionGenerator.getOrCreateRegionPoint(gridX, gridZ);
+        final Region.View point01 = regionGenerator.getOrCreateRegionPoint(gridX, gridZ + 1);
+        final Region.View point10 = regionGenerator.getOrCreateRegionPoint(gridX + 1, gridZ);
+        final Region.View point11 = regionGenerator.getOrCreateRegionPoint(gridX + 1, gridZ + 1);
 
         // Distance within the grid of this chunk - so a value between [0, 1] representing the top left of this chunk
         // The interpolator will add 16 / <grid width> to obtain the other side of this chunk, and interpolate from the bounding boxes of the grid points.
         final double deltaX = Units.blockToGridExact(blockX) - gridX;
         final double deltaZ = Units.blockToGridExact(blockZ) - gridZ;
 
-        final LerpFloatLayer rainfallLayer = ChunkDataGenerator.sampleInterpolatedGridLayer(point00.rainfall, point01.rainfall, point10.rainfall, point11.rainfall, deltaX, deltaZ);
-        final LerpFloatLayer temperatureLayer = ChunkDataGenerator.sampleInterpolatedGridLayer(point00.temperature, point01.temperature, point10.temperature, point11.temperature, deltaX, deltaZ);
+        final LerpFloatLayer rainfallLayer = ChunkDataGenerator.sampleInterpolatedGridLayer(point00.rainfall(), point01.rainfall(), point10.rainfall(), point11.rainfall(), deltaX, deltaZ);
+        final LerpFloatLayer temperatureLayer = ChunkDataGenerator.sampleInterpolatedGridLayer(point00.temperature(), point01.temperature(), point10.temperature(), point11.temperature(), deltaX, deltaZ);
 
         // This layer is sampled per-chunk, to avoid the waste of two additional zoom layers
         final ForestType forestType = forestTypeLayer.get(blockX >> 4, blockZ >> 4);
@@ -215,23 +215,23 @@ public record RegionChunkDataGenerator(
         {
             // Populate layers of layer height, and skew noise here
             final int chunkX = cache.pos().getMinBlockX(), chunkZ = cache.pos().getMinBlockZ();
+            final double[] height = new double[16 * 16], skewX = new double[16 * 16], skewZ = new double[16 * 16];
             for (int populateLayer = cache.layers(); populateLayer <= layer; populateLayer++)
             {
                 final float[] populatedLayerHeight = new float[16 * 16];
                 final float[] populatedLayerSkew = new float[16 * 16 * 2];
                 final int layerX = chunkX + getOffsetX(layer);
                 final int layerZ = chunkZ + getOffsetZ(layer);
-                for (int dx = 0; dx < 16; dx++)
+
+                // Grids are indexed identically to Units.index(dx, dz)
+                layerHeightNoise.fillGrid(height, layerX, layerZ, 1, 16, 16);
+                layerSkewXNoise.fillGrid(skewX, layerX, layerZ, 1, 16, 16);
+                layerSkewZNoise.fillGrid(skewZ, layerX, layerZ, 1, 16, 16);
+                for (int i = 0; i < 16 * 16; i++)
                 {
-                    for (int dz = 0; dz < 16; dz++)
-                    {
-                        final int offsetX = layerX + dx, offsetZ = layerZ + dz;
-                        final int i = Units.index(dx, dz);
-
-                        populatedLayerHeight[i] = (float) layerHeightNoise.noise(offsetX, offsetZ);
-                        populatedLayerSkew[i << 1] = (float) layerSkewXNoise.noise(offsetX, offsetZ);
-                        populatedLayerSkew[(i << 1) | 0b1] = (float) layerSkewZNoise.noise(offsetX, offsetZ);
-                    }
+                    populatedLayerHeight[i] = (float) height[i];
+                    populatedLayerSkew[i << 1] = (float) skewX[i];
+                    populatedLayerSkew[(i << 1) | 0b1] = (float) skewZ[i];
                 }
                 cache.addLayer(populatedLayerHeight, populatedLayerSkew);
             }
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.tree;
+
+import java.util.List;
+import java.util.Map;
+import com.google.common.collect.MapMaker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+/**
+ * A structure template palette, with a single rotation and mirror applied, flattened into arrays of offsets and states.
+ * <p>
+ * This is equivalent to processing the palette with {@link BlockIgnoreProcessor#STRUCTURE_AND_AIR}, and then transforming each position and state, which {@link TreeHelpers#placeTemplate} would otherwise do for every tree.
+ * Blocks are kept in the same order as the palette, so any random values consumed per block are consumed in the same order.
+ * <p>
+ * Compiled templates are cached by palette identity, so templates which are replaced by a resource reload are compiled again. The cache is also cleared on reload, so replaced templates are not retained.
+ */
+public final class CompiledTemplate
+{
+    private static final Rotation[] ROTATIONS = Rotation.values();
+    private static final Mirror[] MIRRORS = Mirror.values();
+
+    private static final Map<StructureTemplate.Palette, CompiledTemplate[]> CACHE = new MapMaker().weakKeys().concurrencyLevel(4).makeMap();
+
+    /**
+     * @return The {@code palette}, compiled for the given {@code mirror} and {@code rotation}.
+     */
+    public static CompiledTemplate get(StructureTemplate.Palette palette, Mirror mirror, Rotation rotation)
+    {
+        CompiledTemplate[] compiled = CACHE.get(palette);
+        if (compiled == null)
+        {
+            compiled = CACHE.computeIfAbsent(palette, key -> new CompiledTemplate[ROTATIONS.length * MIRRORS.length]);
+        }
+
+        // Compiled templates are immutable, so if two threads race to compile the same one, either result may be kept
+        final int index = rotation.ordinal() * MIRRORS.length + mirror.ordinal();
+        CompiledTemplate template = compiled[index];
+        if (template == null)
+        {
+            template = new CompiledTemplate(palette.blocks(), mirror, rotation);
+            compiled[index] = template;
+        }
+        return template;
+    }
+
+    public static void clearCache()
+    {
+        CACHE.clear();
+    }
+
+    private final int[] offsets; // Packed as x, y, z for each block
+    private final BlockState[] states;
+
+    @SuppressWarnings("deprecation")
+    private CompiledTemplate(List<StructureTemplate.StructureBlockInfo> blocks, Mirror mirror, Rotation rotation)
+    {
+        int size = 0;
+        for (StructureTemplate.StructureBlockInfo block : blocks)
+        {
+            if (!isIgnored(block.state()))
+            {
+                size++;
+            }
+        }
+
+        offsets = new int[size * 3];
+        states = new BlockState[size];
+
+        int i = 0;
+        for (StructureTemplate.StructureBlockInfo block : blocks)
+        {
+            if (!isIgnored(block.state()))
+            {
+                final BlockPos offset = TreeHelpers.transform(block.pos(), mirror, rotation);
+                offsets[i * 3] = offset.getX();
+                offsets[i * 3 + 1] = offset.getY();
+                offsets[i * 3 + 2] = offset.getZ();
+                states[i] = block.state().mirror(mirror).rotate(rotation); // No world, can't rotate with world context
+                i++;
+            }
+        }
+    }
+
+    public int size()
+    {
+        return states.length;
+    }
+
+    public BlockState state(int index)
+    {
+        return states[index];
+    }
+
+    /**
+     * Sets {@code cursor} to the position of the block at {@code index}, relative to {@code origin}.
+     */
+    public BlockPos.MutableBlockPos move(BlockPos.MutableBlockPos cursor, BlockPos origin, int index)
+    {
+        return cursor.setWithOffset(origin, offsets[index * 3], offsets[index * 3 + 1], offsets[index * 3 + 2]);
+    }
+
+    /**
+     * Matches {@link BlockIgnoreProcessor#STRUCTURE_AND_AIR}
+     */
+    private static boolean isIgnored(BlockState state)
+    {
+        return state.is(Blocks.STRUCTURE_BLOCK) || state.is(Blocks.AIR);
+    }
+}
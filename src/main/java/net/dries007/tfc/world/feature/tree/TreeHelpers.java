@@ -27,7 +27,9 @@ import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockRotProcessor;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
 import net.minecraft.world.level.material.FluidState;
@@ -52,6 +54,7 @@ public final class TreeHelpers
 {
     private static final Rotation[] ROTATION_VALUES = Rotation.values();
     private static final Mirror[] MIRROR_VALUES = Mirror.values();
+    private static final List<StructureProcessor> DEFAULT_PROCESSORS = List.of(BlockIgnoreProcessor.STRUCTURE_AND_AIR); // The processors which compiled templates apply
 
     public static boolean isValidLocation(LevelAccessor level, BlockPos pos, StructurePlaceSettings settings, TreePlacementConfig config)
     {
@@ -195,9 +198,66 @@ public final class TreeHelpers
      */
     public static void placeTemplate(StructureTemplate template, StructurePlaceSettings placementIn, ServerLevelAccessor level, BlockPos pos)
     {
-        final List<StructureTemplate.StructureBlockInfo> transformedBlockInfos = placementIn.getRandomPalette(((StructureTemplateAccessor) template).accessor$getPalettes(), pos).blocks();
-        BoundingBox boundingBox = placementIn.getBoundingBox();
-        for (StructureTemplate.StructureBlockInfo blockInfo : StructureTemplate.processBlockInfos(level, pos, pos, placementIn, transformedBlockInfos, template))
+        placeTemplate(template, placementIn, level, pos, false, 1f);
+    }
+
+    /**
+     * Places a template, as {@link #placeTemplate(StructureTemplate, StructurePlaceSettings, ServerLevelAccessor, BlockPos)}, with each block only placed with probability {@code integrity}.
+     * This is equivalent to adding a {@link BlockRotProcessor} with the same integrity.
+     */
+    public static void placeTemplate(StructureTemplate template, StructurePlaceSettings placementIn, ServerLevelAccessor level, BlockPos pos, float integrity)
+    {
+        placeTemplate(template, placementIn, level, pos, true, integrity);
+    }
+
+    private static void placeTemplate(StructureTemplate template, StructurePlaceSettings placementIn, ServerLevelAccessor level, BlockPos pos, boolean hasIntegrity, float integrity)
+    {
+        final StructureTemplate.Palette palette = placementIn.getRandomPalette(((StructureTemplateAccessor) template).accessor$getPalettes(), pos);
+        if (!placementIn.getProcessors().equals(DEFAULT_PROCESSORS))
+        {
+            placeTemplateWithProcessors(template, palette, placementIn, level, pos, hasIntegrity, integrity);
+            return;
+        }
+
+        final CompiledTemplate compiled = CompiledTemplate.get(palette, placementIn.getMirror(), placementIn.getRotation());
+        final BoundingBox boundingBox = placementIn.getBoundingBox();
+        final RandomSource random = placementIn.getRandom(pos);
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < compiled.size(); i++)
+        {
+            // With an integrity, always consume a random value for each block, even if the integrity is 1, as a BlockRotProcessor would
+            // This is also done before checking the bounding box, so blocks are placed the same regardless of the bounding box
+            if (hasIntegrity)
+            {
+                final float value = random.nextFloat();
+                if (integrity < 1f && value > integrity)
+                {
+                    continue;
+                }
+            }
+            compiled.move(cursor, pos, i);
+            if (boundingBox == null || boundingBox.isInside(cursor))
+            {
+                final BlockState stateAt = level.getBlockState(cursor);
+                if (EnvironmentHelpers.isWorldgenReplaceable(stateAt) || Helpers.isBlock(stateAt.getBlock(), BlockTags.LEAVES))
+                {
+                    level.setBlock(cursor, compiled.state(i), 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * The original, uncached implementation of {@link #placeTemplate(StructureTemplate, StructurePlaceSettings, ServerLevelAccessor, BlockPos, float)}, used if the settings have any processors which cannot be compiled.
+     */
+    private static void placeTemplateWithProcessors(StructureTemplate template, StructureTemplate.Palette palette, StructurePlaceSettings placementIn, ServerLevelAccessor level, BlockPos pos, boolean hasIntegrity, float integrity)
+    {
+        if (hasIntegrity)
+        {
+            placementIn = placementIn.copy().addProcessor(new BlockRotProcessor(integrity));
+        }
+        final BoundingBox boundingBox = placementIn.getBoundingBox();
+        for (StructureTemplate.StructureBlockInfo blockInfo : StructureTemplate.processBlockInfos(level, pos, pos, placementIn, palette.blocks(), template))
         {
             BlockPos posAt = blockInfo.pos();
             if (boundingBox == null || boundingBox.isInside(posAt))
@@ -0,0 +1,65 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.feature.vein;
+
+import java.util.Map;
+import com.google.common.collect.MapMaker;
+import org.jetbrains.annotations.Nullable;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+
+/**
+ * Caches the vein, if any, which each vein configuration creates in each chunk.
+ * <p>
+ * Placing a vein feature in a chunk requires every vein started within {@link IVeinConfig#chunkRadius()} chunks, so each vein would otherwise be recreated by up to 49 different chunks. Veins are deterministic for a given world seed, so entries which are evicted are simply recomputed. Each configuration has its own bounded cache, in which entries are overwritten by newer chunks once the area around them has been decorated.
+ */
+public final class VeinCache
+{
+    private final Map<IVeinConfig, FastConcurrentCache<Entry>> caches;
+    private final int size;
+
+    public VeinCache(int size)
+    {
+        this.caches = new MapMaker().weakKeys().concurrencyLevel(4).makeMap(); // Weak, and thus by identity, so configurations can be unloaded with data packs
+        this.size = size;
+    }
+
+    /**
+     * @param seed    The world seed.
+     * @param factory Creates the vein for a chunk, only invoked if the vein is not cached.
+     * @return The vein created by {@code config} in the chunk {@code (chunkX, chunkZ)}, or {@code null} if there is none.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <V extends IVein> V getOrCreate(IVeinConfig config, long seed, int chunkX, int chunkZ, Factory<V> factory)
+    {
+        FastConcurrentCache<Entry> cache = caches.get(config);
+        if (cache == null)
+        {
+            cache = caches.computeIfAbsent(config, key -> new FastConcurrentCache<>(size));
+        }
+
+        final Entry cached = cache.getIfPresent(chunkX, chunkZ);
+        if (cached != null && cached.seed == seed)
+        {
+            return (V) cached.vein;
+        }
+
+        final V vein = factory.create(chunkX, chunkZ);
+        cache.set(chunkX, chunkZ, new Entry(seed, vein));
+        return vein;
+    }
+
+    @FunctionalInterface
+    public interface Factory<V extends IVein>
+    {
+        @Nullable
+        V create(int chunkX, int chunkZ);
+    }
+
+    private record Entry(long seed, @Nullable IVein vein) {}
+}
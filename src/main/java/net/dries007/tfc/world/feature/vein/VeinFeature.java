@@ -8,21 +8,31 @@ package net.dries007.tfc.world.feature.vein;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import com.mojang.serialization.Codec;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
 import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.levelgen.WorldGenerationContext;
 import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import net.minecraft.world.level.levelgen.feature.ConfiguredFeature;
 import net.minecraft.world.level.levelgen.feature.Feature;
 import net.minecraft.world.level.levelgen.feature.FeaturePlaceContext;
+import net.minecraft.world.level.levelgen.feature.configurations.FeatureConfiguration;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.material.Fluids;
 import org.jetbrains.annotations.Nullable;
@@ -30,11 +40,33 @@ import org.jetbrains.annotations.Nullable;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.util.EnvironmentHelpers;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.world.ChunkGeneratorExtension;
 
 public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extends Feature<C>
 {
     private static final int MAX_VEIN_Y_NO_ORE_PLACED = Integer.MIN_VALUE;
 
+    /**
+     * Finds all veins, of every configured vein feature, which may intersect {@code box}.
+     * <p>
+     * This does not look at any blocks, it recreates veins (using the generator's {@link VeinCache} if present) from the world seed. As a result, it is much cheaper than scanning the box, but it will include veins which have since been mined out, and the bounding boxes of veins are conservative.
+     */
+    public static List<Located> findVeins(ServerLevel level, BoundingBox box)
+    {
+        final ChunkGenerator generator = level.getChunkSource().getGenerator();
+        final VeinCache cache = generator instanceof ChunkGeneratorExtension extension ? extension.veinCache() : null;
+        final WorldGenerationContext context = new WorldGenerationContext(generator, level);
+        final List<Located> found = new ArrayList<>();
+        for (Map.Entry<ResourceKey<ConfiguredFeature<?, ?>>, ConfiguredFeature<?, ?>> entry : level.registryAccess().registryOrThrow(Registries.CONFIGURED_FEATURE).entrySet())
+        {
+            if (entry.getValue().feature() instanceof VeinFeature<?, ?> feature)
+            {
+                feature.findVeins(level, context, cache, entry.getKey().location(), entry.getValue().config(), box, found);
+            }
+        }
+        return found;
+    }
+
     public VeinFeature(Codec<C> codec)
     {
         super(codec);
@@ -50,7 +82,8 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
         final WorldGenerationContext generationContext = new WorldGenerationContext(context.chunkGenerator(), level);
 
         final ChunkPos chunkPos = new ChunkPos(pos);
-        final List<V> veins = getNearbyVeins(level, generationContext, chunkPos, config.chunkRadius(), config, level::getBiome);
+        final VeinCache cache = context.chunkGenerator() instanceof ChunkGeneratorExtension extension ? extension.veinCache() : null;
+        final List<V> veins = getNearbyVeins(level, generationContext, chunkPos, config.chunkRadius(), config, level::getBiome, cache);
         if (!veins.isEmpty())
         {
             for (V vein : veins)
@@ -63,13 +96,26 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
     }
 
     public final List<V> getNearbyVeins(WorldGenLevel level, WorldGenerationContext context, ChunkPos pos, int radius, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
+    {
+        return getNearbyVeins(level, context, pos, radius, config, biomeQuery, null);
+    }
+
+    /**
+     * @param cache If not {@code null}, veins are queried from, and added to, this cache.
+     */
+    public final List<V> getNearbyVeins(WorldGenLevel level, WorldGenerationContext context, ChunkPos pos, int radius, C config, Function<BlockPos, Holder<Biome>> biomeQuery, @Nullable VeinCache cache)
     {
         final List<V> veins = new ArrayList<>();
+        final VeinCache.Factory<V> factory = (chunkX, chunkZ) -> createVeinAtChunk(level, context, chunkX, chunkZ, config, biomeQuery);
         for (int x = pos.x - radius; x <= pos.x + radius; x++)
         {
             for (int z = pos.z - radius; z <= pos.z + radius; z++)
             {
-                getVeinsAtChunk(level, context, x, z, veins, config, biomeQuery);
+                final V vein = cache != null ? cache.getOrCreate(config, level.getSeed(), x, z, factory) : factory.create(x, z);
+                if (vein != null)
+                {
+                    veins.add(vein);
+                }
             }
         }
         return veins;
@@ -77,17 +123,29 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
 
     public final void getVeinsAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, List<V> veins, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
     {
-        final RandomSource random = new XoroshiroRandomSource(level.getSeed() ^ chunkPosX * 61728364132L, config.config().seed() ^ chunkPosZ * 16298364123L);
-        if (random.nextInt(config.config().rarity()) == 0)
+        final V vein = createVeinAtChunk(level, context, chunkPosX, chunkPosZ, config, biomeQuery);
+        if (vein != null)
         {
-            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, random, config);
-            if (config.canSpawnAt(vein.pos(), biomeQuery))
-            {
-                veins.add(vein);
-            }
+            veins.add(vein);
         }
     }
 
+    /**
+     * @return The bounding box, in world coordinates, that may contain any blocks placed by this vein.
+     */
+    public final BoundingBox getWorldBoundingBox(LevelHeightAccessor level, C config, V vein)
+    {
+        final BlockPos pos = vein.pos();
+        final BoundingBox box = getBoundingBox(config, vein).moved(pos.getX(), pos.getY(), pos.getZ());
+
+        // Veins are clamped to the config's y range, unless they are projected to the surface, in which case they can be anywhere
+        // Projected offsets can move a vein up to 15 blocks in either direction.
+        final int offset = config.config().projectOffset() ? 15 : 0;
+        final int minY = config.config().projectToSurface() ? level.getMinBuildHeight() : Math.max(config.minY(), box.minY());
+        final int maxY = config.config().projectToSurface() ? level.getMaxBuildHeight() : Math.min(config.maxY(), box.maxY());
+        return new BoundingBox(box.minX() - offset, minY, box.minZ() - offset, box.maxX() + offset, maxY, box.maxZ() + offset);
+    }
+
     protected void place(WorldGenLevel level, RandomSource random, int blockX, int blockZ, V vein, C config)
     {
         final boolean debugIndicatorLocations = false;
@@ -244,6 +302,46 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
      */
     protected abstract BoundingBox getBoundingBox(C config, V vein);
 
+    @Nullable
+    private V createVeinAtChunk(WorldGenLevel level, WorldGenerationContext context, int chunkPosX, int chunkPosZ, C config, Function<BlockPos, Holder<Biome>> biomeQuery)
+    {
+        final RandomSource random = new XoroshiroRandomSource(level.getSeed() ^ chunkPosX * 61728364132L, config.config().seed() ^ chunkPosZ * 16298364123L);
+        if (random.nextInt(config.config().rarity()) == 0)
+        {
+            final V vein = createVein(context, chunkPosX << 4, chunkPosZ << 4, random, config);
+            if (config.canSpawnAt(vein.pos(), biomeQuery))
+            {
+                return vein;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void findVeins(ServerLevel level, WorldGenerationContext context, @Nullable VeinCache cache, ResourceLocation id, FeatureConfiguration featureConfig, BoundingBox box, List<Located> found)
+    {
+        final C config = (C) featureConfig;
+        final int radius = config.chunkRadius();
+        final ChunkPos min = new ChunkPos(SectionPos.blockToSectionCoord(box.minX()) - radius, SectionPos.blockToSectionCoord(box.minZ()) - radius);
+        final ChunkPos max = new ChunkPos(SectionPos.blockToSectionCoord(box.maxX()) + radius, SectionPos.blockToSectionCoord(box.maxZ()) + radius);
+        final VeinCache.Factory<V> factory = (chunkX, chunkZ) -> createVeinAtChunk(level, context, chunkX, chunkZ, config, level::getBiome);
+        for (int x = min.x; x <= max.x; x++)
+        {
+            for (int z = min.z; z <= max.z; z++)
+            {
+                final V vein = cache != null ? cache.getOrCreate(config, level.getSeed(), x, z, factory) : factory.create(x, z);
+                if (vein != null)
+                {
+                    final BoundingBox veinBox = getWorldBoundingBox(level, config, vein);
+                    if (veinBox.intersects(box))
+                    {
+                        found.add(new Located(id, config, vein, veinBox));
+                    }
+                }
+            }
+        }
+    }
+
     private boolean isNearLava(WorldGenLevel level, BlockPos.MutableBlockPos cursor, int x, int z)
     {
         final int lavaY = -55;
@@ -260,4 +358,12 @@ public abstract class VeinFeature<C extends IVeinConfig, V extends IVein> extend
         }
         return false;
     }
+
+    /**
+     * A vein found by {@link #findVeins(ServerLevel, BoundingBox)}.
+     *
+     * @param id  The id of the configured feature which places this vein.
+     * @param box The bounding box, in world coordinates, that may contain blocks placed by this vein.
+     */
+    public record Located(ResourceLocation id, IVeinConfig config, IVein vein, BoundingBox box) {}
 }
@@ -16,11 +16,11 @@ public enum RegionBiomeLayer
 {
     INSTANCE;
 
-    public AreaFactory apply(TypedAreaFactory<Region.Point> prev)
+    public AreaFactory apply(TypedAreaFactory<Region.View> prev)
     {
         return () -> {
-            final TypedArea<Region.Point> prevArea = prev.get();
-            return new Area((x, z) -> prevArea.get(x, z).biome, 1024);
+            final TypedArea<Region.View> prevArea = prev.get();
+            return new Area((x, z) -> prevArea.get(x, z).biome(), 1024);
         };
     }
 }
@@ -11,10 +11,10 @@ import net.dries007.tfc.world.layer.framework.TypedSourceLayer;
 import net.dries007.tfc.world.region.Region;
 import net.dries007.tfc.world.region.RegionGenerator;
 
-public record RegionLayer(RegionGenerator generator) implements TypedSourceLayer<Region.Point>
+public record RegionLayer(RegionGenerator generator) implements TypedSourceLayer<Region.View>
 {
     @Override
-    public Region.Point apply(AreaContext context, int x, int z)
+    public Region.View apply(AreaContext context, int x, int z)
     {
         return generator.getOrCreateRegionPoint(x, z);
     }
@@ -151,7 +151,7 @@ public class TFCLayers
     public static AreaFactory createOverworldRockLayer(RegionGenerator generator, long seed)
     {
         final Random random = new Random(seed);
-        final TypedAreaFactory<Region.Point> regionLayer = new RegionLayer(generator).apply(random.nextLong());
+        final TypedAreaFactory<Region.View> regionLayer = new RegionLayer(generator).apply(random.nextLong());
 
         AreaFactory layer;
 
@@ -170,7 +170,7 @@ public class TFCLayers
     public static AreaFactory createRegionBiomeLayer(RegionGenerator generator, long seed)
     {
         final Random random = new Random(seed);
-        final TypedAreaFactory<Region.Point> regionLayer = new RegionLayer(generator).apply(random.nextLong());
+        final TypedAreaFactory<Region.View> regionLayer = new RegionLayer(generator).apply(random.nextLong());
 
         AreaFactory mainLayer;
 
@@ -31,6 +31,15 @@ public class Cellular2D implements Noise2D
         return cell(x, y).noise();
     }
 
+    @Override
+    public void fill(double[] x, double[] z, double[] out, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = cell(x[i], z[i]).noise();
+        }
+    }
+
     @Override
     public Cellular2D spread(double scaleFactor)
     {
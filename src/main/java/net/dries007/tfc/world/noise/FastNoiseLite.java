@@ -343,6 +343,41 @@ public class FastNoiseLite
         }
     }
 
+    /// <summary>
+    /// 2D noise at each of the given positions using current settings, written to <c>out</c>
+    /// </summary>
+    /// <remarks>
+    /// Equivalent to calling <c>GetNoise(x[i], y[i])</c> for each position, but resolves the noise and fractal type once per batch
+    /// </remarks>
+    public void GetNoise(/*FNLfloat*/ double[] xs, /*FNLfloat*/ double[] ys, double[] out, int count)
+    {
+        final boolean skew = mNoiseType == NoiseType.OpenSimplex2 || mNoiseType == NoiseType.OpenSimplex2S;
+        final /*FNLfloat*/ double SQRT3 = (/*FNLfloat*/ double)1.7320508075688772935274463415059;
+        final /*FNLfloat*/ double F2 = 0.5f * (SQRT3 - 1);
+        final FractalType fractalType = mFractalType;
+
+        for (int i = 0; i < count; i++)
+        {
+            /*FNLfloat*/ double x = xs[i] * mFrequency;
+            /*FNLfloat*/ double y = ys[i] * mFrequency;
+
+            if (skew)
+            {
+                /*FNLfloat*/ double t = (x + y) * F2;
+                x += t;
+                y += t;
+            }
+
+            out[i] = switch (fractalType)
+            {
+                default -> GenNoiseSingle(mSeed, x, y);
+                case FBm -> GenFractalFBm(x, y);
+                case Ridged -> GenFractalRidged(x, y);
+                case PingPong -> GenFractalPingPong(x, y);
+            };
+        }
+    }
+
     /// <summary>
     /// 3D noise at given position using current settings
     /// </summary>
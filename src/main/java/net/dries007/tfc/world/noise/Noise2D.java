@@ -7,10 +7,11 @@
 package net.dries007.tfc.world.noise;
 
 import java.util.function.DoubleUnaryOperator;
-import net.minecraft.util.Mth;
 
 /**
  * Wrapper for a 2D noise layer
+ * <p>
+ * Noise may be sampled one point at a time, via {@link #noise(double, double)}, or in batches, via {@link #fill(double[], double[], double[], int)} and {@link #fillGrid(double[], int, int, int, int, int)}. The combinators provided here are implemented by {@link Noise2DNodes}, which evaluate each stage of the noise over the entire batch at once, rather than each point through the entire chain. Batch evaluation must produce exactly the same values as sampling each point individually.
  */
 @FunctionalInterface
 public interface Noise2D
@@ -18,25 +19,48 @@ public interface Noise2D
     double noise(double x, double z);
 
     /**
-     * @param octaves The number of octaves
+     * Samples this noise at {@code count} points, {@code (x[i], z[i])}, into {@code out[i]}. The output array may not alias either input array.
      */
-    default Noise2D octaves(int octaves)
+    default void fill(double[] x, double[] z, double[] out, int count)
     {
-        final double[] frequency = new double[octaves];
-        final double[] amplitude = new double[octaves];
-        for (int i = 0; i < octaves; i++)
+        for (int i = 0; i < count; i++)
         {
-            frequency[i] = 1 << i;
-            amplitude[i] = (double) Math.pow(0.5f, octaves - i);
+            out[i] = noise(x[i], z[i]);
         }
-        return (x, y) -> {
-            double value = 0;
-            for (int i = 0; i < octaves; i++)
+    }
+
+    /**
+     * Samples this noise on a grid of {@code sizeX * sizeZ} points, where {@code out[i + sizeX * j]} is the noise at {@code (minX + i * step, minZ + j * step)}
+     */
+    default void fillGrid(double[] out, int minX, int minZ, int step, int sizeX, int sizeZ)
+    {
+        final int count = sizeX * sizeZ;
+        final Noise2DNodes.Scratch scratch = Noise2DNodes.Scratch.get();
+        final double[] x = scratch.borrow(count), z = scratch.borrow(count);
+        try
+        {
+            for (int j = 0; j < sizeZ; j++)
             {
-                value += Noise2D.this.noise(x / frequency[i], y / frequency[i]) * amplitude[i];
+                for (int i = 0; i < sizeX; i++)
+                {
+                    x[i + sizeX * j] = minX + i * step;
+                    z[i + sizeX * j] = minZ + j * step;
+                }
             }
-            return value;
-        };
+            fill(x, z, out, count);
+        }
+        finally
+        {
+            scratch.release(2);
+        }
+    }
+
+    /**
+     * @param octaves The number of octaves
+     */
+    default Noise2D octaves(int octaves)
+    {
+        return new Noise2DNodes.Octaves(this, octaves);
     }
 
     /**
@@ -46,11 +70,7 @@ public interface Noise2D
      */
     default Noise2D ridged()
     {
-        return (x, y) -> {
-            double value = Noise2D.this.noise(x, y);
-            value = value < 0 ? -value : value;
-            return 1f - 2f * value;
-        };
+        return new Noise2DNodes.Ridged(this);
     }
 
     /**
@@ -60,7 +80,7 @@ public interface Noise2D
      */
     default Noise2D abs()
     {
-        return (x, y) -> Math.abs(Noise2D.this.noise(x, y));
+        return new Noise2DNodes.Abs(this);
     }
 
     /**
@@ -72,11 +92,7 @@ public interface Noise2D
      */
     default Noise2D terraces(int levels)
     {
-        return (x, y) -> {
-            double value = 0.5f * Noise2D.this.noise(x, y) + 0.5f;
-            double rounded = (int) (value * levels); // In range [0, levels)
-            return (rounded * 2f) / levels - 1f;
-        };
+        return new Noise2DNodes.Terraces(this, levels);
     }
 
     /**
@@ -87,7 +103,7 @@ public interface Noise2D
      */
     default Noise2D spread(double scaleFactor)
     {
-        return (x, y) -> Noise2D.this.noise(x * scaleFactor, y * scaleFactor);
+        return new Noise2DNodes.Spread(this, scaleFactor);
     }
 
     default Noise2D scaled(double min, double max)
@@ -113,7 +129,7 @@ public interface Noise2D
 
     default Noise2D affine(double scale, double shift)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) * scale + shift;
+        return new Noise2DNodes.Affine(this, scale, shift);
     }
 
     default Noise2D warped(OpenSimplex2D warp)
@@ -121,13 +137,7 @@ public interface Noise2D
         warp.fnl.SetDomainWarpType(FastNoiseLite.DomainWarpType.OpenSimplex2);
         warp.fnl.SetFractalType(FastNoiseLite.FractalType.DomainWarpIndependent);
         warp.fnl.SetDomainWarpAmp(warp.getAmplitude() * 2);
-        final FastNoiseLite.Vector2 cursor = new FastNoiseLite.Vector2(0, 0);
-        return (x, z) -> {
-            cursor.x = x;
-            cursor.y = z;
-            warp.fnl.DomainWarp(cursor);
-            return Noise2D.this.noise(cursor.x, cursor.y);
-        };
+        return new Noise2DNodes.Warped(this, warp.fnl);
     }
 
     /**
@@ -139,7 +149,7 @@ public interface Noise2D
      */
     default Noise2D clamped(double min, double max)
     {
-        return (x, y) -> Mth.clamp(Noise2D.this.noise(x, y), min, max);
+        return new Noise2DNodes.Clamped(this, min, max);
     }
 
     /**
@@ -147,7 +157,7 @@ public interface Noise2D
      */
     default Noise2D add(Noise2D other)
     {
-        return (x, y) -> Noise2D.this.noise(x, y) + other.noise(x, y);
+        return new Noise2DNodes.Add(this, other);
     }
 
     /**
@@ -155,14 +165,11 @@ public interface Noise2D
      */
     default Noise2D lazyProduct(Noise2D other)
     {
-        return (x, y) -> {
-            final double value = Noise2D.this.noise(x, y);
-            return value == 0 ? 0 : value * other.noise(x, y);
-        };
+        return new Noise2DNodes.LazyProduct(this, other);
     }
 
     default Noise2D map(DoubleUnaryOperator mappingFunction)
     {
-        return (x, y) -> mappingFunction.applyAsDouble(Noise2D.this.noise(x, y));
+        return new Noise2DNodes.Mapped(this, mappingFunction);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,366 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.noise;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import net.minecraft.util.Mth;
+
+/**
+ * Implementations of the {@link Noise2D} combinators.
+ * <p>
+ * Each combinator is a small, final, node, rather than a lambda, so that it can implement both single point and batch sampling. Batch sampling evaluates the source once for the entire batch, then applies this node's operation in a single tight loop. Each operation is written identically in both paths, so both produce exactly the same values.
+ * <p>
+ * Sources are still called through the {@link Noise2D} interface, but only once per batch, rather than once per point. Nodes which need coordinates or values besides {@code out} borrow them from a per-thread {@link Scratch}, so a batch does not allocate.
+ */
+final class Noise2DNodes
+{
+    record Octaves(Noise2D source, int octaves, double[] frequency, double[] amplitude) implements Noise2D
+    {
+        Octaves(Noise2D source, int octaves)
+        {
+            this(source, octaves, new double[octaves], new double[octaves]);
+            for (int i = 0; i < octaves; i++)
+            {
+                frequency[i] = 1 << i;
+                amplitude[i] = (double) Math.pow(0.5f, octaves - i);
+            }
+        }
+
+        @Override
+        public double noise(double x, double z)
+        {
+            double value = 0;
+            for (int i = 0; i < octaves; i++)
+            {
+                value += source.noise(x / frequency[i], z / frequency[i]) * amplitude[i];
+            }
+            return value;
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            final Scratch scratch = Scratch.get();
+            final double[] octaveX = scratch.borrow(count), octaveZ = scratch.borrow(count), octave = scratch.borrow(count);
+            try
+            {
+                for (int j = 0; j < count; j++)
+                {
+                    out[j] = 0;
+                }
+                for (int i = 0; i < octaves; i++)
+                {
+                    for (int j = 0; j < count; j++)
+                    {
+                        octaveX[j] = x[j] / frequency[i];
+                        octaveZ[j] = z[j] / frequency[i];
+                    }
+                    source.fill(octaveX, octaveZ, octave, count);
+                    for (int j = 0; j < count; j++)
+                    {
+                        out[j] += octave[j] * amplitude[i];
+                    }
+                }
+            }
+            finally
+            {
+                scratch.release(3);
+            }
+        }
+    }
+
+    record Ridged(Noise2D source) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return ridged(source.noise(x, z));
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = ridged(out[i]);
+            }
+        }
+
+        private static double ridged(double value)
+        {
+            value = value < 0 ? -value : value;
+            return 1f - 2f * value;
+        }
+    }
+
+    record Abs(Noise2D source) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return Math.abs(source.noise(x, z));
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = Math.abs(out[i]);
+            }
+        }
+    }
+
+    record Terraces(Noise2D source, int levels) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return terrace(source.noise(x, z));
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = terrace(out[i]);
+            }
+        }
+
+        private double terrace(double noise)
+        {
+            double value = 0.5f * noise + 0.5f;
+            double rounded = (int) (value * levels); // In range [0, levels)
+            return (rounded * 2f) / levels - 1f;
+        }
+    }
+
+    record Spread(Noise2D source, double scaleFactor) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return source.noise(x * scaleFactor, z * scaleFactor);
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            final Scratch scratch = Scratch.get();
+            final double[] spreadX = scratch.borrow(count), spreadZ = scratch.borrow(count);
+            try
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    spreadX[i] = x[i] * scaleFactor;
+                    spreadZ[i] = z[i] * scaleFactor;
+                }
+                source.fill(spreadX, spreadZ, out, count);
+            }
+            finally
+            {
+                scratch.release(2);
+            }
+        }
+    }
+
+    record Affine(Noise2D source, double scale, double shift) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return source.noise(x, z) * scale + shift;
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = out[i] * scale + shift;
+            }
+        }
+    }
+
+    /**
+     * Uses a new cursor for each sample, as noise may be sampled concurrently.
+     */
+    record Warped(Noise2D source, FastNoiseLite warp) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            final FastNoiseLite.Vector2 cursor = new FastNoiseLite.Vector2(x, z);
+            warp.DomainWarp(cursor);
+            return source.noise(cursor.x, cursor.y);
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            final Scratch scratch = Scratch.get();
+            final double[] warpedX = scratch.borrow(count), warpedZ = scratch.borrow(count);
+            final FastNoiseLite.Vector2 cursor = new FastNoiseLite.Vector2(0, 0);
+            try
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    cursor.x = x[i];
+                    cursor.y = z[i];
+                    warp.DomainWarp(cursor);
+                    warpedX[i] = cursor.x;
+                    warpedZ[i] = cursor.y;
+                }
+                source.fill(warpedX, warpedZ, out, count);
+            }
+            finally
+            {
+                scratch.release(2);
+            }
+        }
+    }
+
+    record Clamped(Noise2D source, double min, double max) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return Mth.clamp(source.noise(x, z), min, max);
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = Mth.clamp(out[i], min, max);
+            }
+        }
+    }
+
+    record Add(Noise2D source, Noise2D other) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return source.noise(x, z) + other.noise(x, z);
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            final Scratch scratch = Scratch.get();
+            final double[] otherOut = scratch.borrow(count);
+            try
+            {
+                source.fill(x, z, out, count);
+                other.fill(x, z, otherOut, count);
+                for (int i = 0; i < count; i++)
+                {
+                    out[i] += otherOut[i];
+                }
+            }
+            finally
+            {
+                scratch.release(1);
+            }
+        }
+    }
+
+    /**
+     * The second noise is still sampled one point at a time, and only where the first is non-zero, as it is typically both expensive and sparse.
+     */
+    record LazyProduct(Noise2D source, Noise2D other) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            final double value = source.noise(x, z);
+            return value == 0 ? 0 : value * other.noise(x, z);
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                final double value = out[i];
+                out[i] = value == 0 ? 0 : value * other.noise(x[i], z[i]);
+            }
+        }
+    }
+
+    record Mapped(Noise2D source, DoubleUnaryOperator mappingFunction) implements Noise2D
+    {
+        @Override
+        public double noise(double x, double z)
+        {
+            return mappingFunction.applyAsDouble(source.noise(x, z));
+        }
+
+        @Override
+        public void fill(double[] x, double[] z, double[] out, int count)
+        {
+            source.fill(x, z, out, count);
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = mappingFunction.applyAsDouble(out[i]);
+            }
+        }
+    }
+
+    /**
+     * Arrays for nodes to use during a batch, which are reused between batches on the same thread.
+     * As nodes are nested, arrays are borrowed and released in stack order, so a node's arrays are never reused by its sources while it is still using them.
+     */
+    static final class Scratch
+    {
+        private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+        static Scratch get()
+        {
+            return LOCAL.get();
+        }
+
+        private double[][] arrays = new double[8][];
+        private int depth = 0;
+
+        /**
+         * @return An array of at least {@code count} values, with unspecified contents, which must be released with {@link #release(int)} by the same node.
+         */
+        double[] borrow(int count)
+        {
+            if (depth == arrays.length)
+            {
+                arrays = Arrays.copyOf(arrays, depth * 2);
+            }
+            double[] array = arrays[depth];
+            if (array == null || array.length < count)
+            {
+                array = new double[count];
+                arrays[depth] = array;
+            }
+            depth++;
+            return array;
+        }
+
+        void release(int count)
+        {
+            depth -= count;
+        }
+    }
+
+    private Noise2DNodes() {}
+}
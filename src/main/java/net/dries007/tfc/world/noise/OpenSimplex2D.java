@@ -35,6 +35,16 @@ public class OpenSimplex2D implements Noise2D
         return midpoint + fnl.GetNoise(x, z) * amplitude;
     }
 
+    @Override
+    public void fill(double[] x, double[] z, double[] out, int count)
+    {
+        fnl.GetNoise(x, z, out, count);
+        for (int i = 0; i < count; i++)
+        {
+            out[i] = midpoint + out[i] * amplitude;
+        }
+    }
+
     @Override
     public OpenSimplex2D octaves(int octaves)
     {
@@ -13,8 +13,20 @@ import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.noise.Cellular2D;
 import net.dries007.tfc.world.noise.FastNoiseLite;
 
+/**
+ * A region is generated as a grid of mutable {@link Point}s, by the {@link RegionGenerator.Task}s. Once all tasks have run, it is {@link #pack() packed} into parallel primitive arrays, one column per field of {@link Point}, which are read through lightweight {@link View}s. This is significantly smaller than keeping a heap object per grid point, which matters as regions are cached, and are large.
+ */
 public final class Region
 {
+    private static final short FLAG_PRESENT = 0b100_0000_0000_0000;
+
+    static final int BYTES_PER_POINT = 5;
+    private static final int BYTE_DISTANCE_TO_OCEAN = 0;
+    private static final int BYTE_DISTANCE_TO_EDGE = 1;
+    private static final int BYTE_BASE_OCEAN_DEPTH = 2;
+    private static final int BYTE_BASE_LAND_HEIGHT = 3;
+    private static final int BYTE_BIOME_ALTITUDE = 4;
+
     private final double cellX;
     private final double cellY;
     private final double noise;
@@ -24,9 +36,17 @@ public final class Region
     private int maxZ;
     private int sizeX;
     private int sizeZ;
-    private Point[] data;
+    private @Nullable Point[] data;
     private @Nullable List<RiverEdge> rivers;
 
+    // Packed columns, which are only present once this region has been packed. Each is indexed by the same index as data, with bytes having a stride of BYTES_PER_POINT
+    private byte[] bytes;
+    private short[] flags;
+    private float[] rainfall;
+    private float[] temperature;
+    private int[] biome;
+    private int[] rock;
+
     public Region(Cellular2D.Cell cell)
     {
         this.cellX = cell.x();
@@ -47,8 +67,36 @@ public final class Region
         this.data = new Point[Units.REGION_WIDTH_IN_GRID * Units.REGION_WIDTH_IN_GRID];
     }
 
+    /**
+     * Creates an already generated and packed region, i.e. when loading from a {@link RegionStore}. The columns are expected to be of the sizes given by {@link #packedLength(int)} for the given bounding box.
+     */
+    Region(double cellX, double cellY, double noise, int minX, int minZ, int maxX, int maxZ, byte[] bytes, short[] flags, float[] rainfall, float[] temperature, int[] biome, int[] rock)
+    {
+        this.cellX = cellX;
+        this.cellY = cellY;
+        this.noise = noise;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+        this.sizeX = 1 + maxX - minX;
+        this.sizeZ = 1 + maxZ - minZ;
+        this.data = null;
+
+        this.bytes = bytes;
+        this.flags = flags;
+        this.rainfall = rainfall;
+        this.temperature = temperature;
+        this.biome = biome;
+        this.rock = rock;
+
+        assert flags.length == sizeX * sizeZ && bytes.length == packedLength(BYTES_PER_POINT) : "Packed region columns do not match the size of the region";
+    }
+
     public Point atInit(int gridX, int gridZ)
     {
+        assert data != null : "Region is already packed";
+
         final int index = index(gridX, gridZ);
         final Point point = new Point();
 
@@ -65,12 +113,13 @@ public final class Region
     }
 
     /**
-     * @return The {@link Point} at the specified grid coordinates. Errors if the coordinates are out of range of this {@link Region}'s bounding box and returns {@code null} if they are outside this {@link Region}.
+     * @return The {@link Point} at the specified grid coordinates. Errors if the coordinates are out of range of this {@link Region}'s bounding box and returns {@code null} if they are outside this {@link Region}. If this region is already packed, this returns a detached copy of the point, so prefer {@link #viewAt(int, int)}.
      */
     @Nullable
     public Point at(int gridX, int gridZ)
     {
-        return data[index(gridX, gridZ)];
+        final int index = index(gridX, gridZ);
+        return data != null ? data[index] : unpack(index);
     }
 
     /**
@@ -79,7 +128,19 @@ public final class Region
     @Nullable
     public Point maybeAt(int gridX, int gridZ)
     {
-        return isIn(gridX, gridZ) ? data[index(gridX, gridZ)] : null;
+        return isIn(gridX, gridZ) ? at(gridX, gridZ) : null;
+    }
+
+    /**
+     * @return A {@link View} of the point at the specified grid coordinates, which must be within this {@link Region}. Requires this region to be packed.
+     */
+    public View viewAt(int gridX, int gridZ)
+    {
+        assert isPacked() : "Region is not packed yet";
+
+        final int index = index(gridX, gridZ);
+        assert (flags[index] & FLAG_PRESENT) != 0 : "Region %s does not contain point at (%d, %d)".formatted(this, gridX, gridZ);
+        return new View(this, index);
     }
 
     /**
@@ -113,6 +174,8 @@ public final class Region
         return localX + sizeX * localZ;
     }
 
+    public double cellX() { return cellX; }
+    public double cellY() { return cellY; }
     public double noise() { return noise; }
 
     public int minX() { return minX; }
@@ -124,6 +187,8 @@ public final class Region
 
     void setRegionArea(Point[] data, int minX, int minZ, int maxX, int maxZ)
     {
+        assert this.data != null : "Region is already packed";
+
         this.data = data;
         this.minX = minX;
         this.minZ = minZ;
@@ -141,8 +206,72 @@ public final class Region
         this.rivers = rivers;
     }
 
+    /**
+     * Converts the mutable {@link Point}s of this region into packed, primitive columns, and discards the points. After this, the region is effectively immutable, and should be queried through {@link #viewAt(int, int)}.
+     */
+    void pack()
+    {
+        assert data != null : "Region is already packed";
+
+        final int size = data.length;
+
+        bytes = new byte[size * BYTES_PER_POINT];
+        flags = new short[size];
+        rainfall = new float[size];
+        temperature = new float[size];
+        biome = new int[size];
+        rock = new int[size];
+
+        for (int index = 0; index < size; index++)
+        {
+            final Point point = data[index];
+            if (point != null)
+            {
+                final int byteIndex = index * BYTES_PER_POINT;
+                bytes[byteIndex + BYTE_DISTANCE_TO_OCEAN] = point.distanceToOcean;
+                bytes[byteIndex + BYTE_DISTANCE_TO_EDGE] = point.distanceToEdge;
+                bytes[byteIndex + BYTE_BASE_OCEAN_DEPTH] = point.baseOceanDepth;
+                bytes[byteIndex + BYTE_BASE_LAND_HEIGHT] = point.baseLandHeight;
+                bytes[byteIndex + BYTE_BIOME_ALTITUDE] = point.biomeAltitude;
+                flags[index] = (short) (point.flags | FLAG_PRESENT);
+                rainfall[index] = point.rainfall;
+                temperature[index] = point.temperature;
+                biome[index] = point.biome;
+                rock[index] = point.rock;
+            }
+        }
+        data = null;
+    }
+
+    public boolean isPacked()
+    {
+        return data == null;
+    }
+
+    /**
+     * @return The length of a packed column with {@code stride} entries per point, for the current bounding box of this region.
+     */
+    int packedLength(int stride)
+    {
+        return sizeX * sizeZ * stride;
+    }
+
+    byte[] packedBytes() { return bytes; }
+    short[] packedFlags() { return flags; }
+    float[] packedRainfall() { return rainfall; }
+    float[] packedTemperature() { return temperature; }
+    int[] packedBiome() { return biome; }
+    int[] packedRock() { return rock; }
+
+    /**
+     * @return The mutable points of this region. Only valid while this region is being generated, before it is packed.
+     */
+    public Point[] data()
+    {
+        assert data != null : "Region is already packed";
+        return data;
+    }
 
-    public Point[] data() { return data; }
     public List<RiverEdge> rivers() { assert rivers != null; return rivers; }
 
     @Override
@@ -151,6 +280,56 @@ public final class Region
         return "Region [%d, %d] x [%d, %d] at cell (%f, %f)".formatted(minX, maxX, minZ, maxZ, cellX, cellY);
     }
 
+    @Nullable
+    private Point unpack(int index)
+    {
+        if ((flags[index] & FLAG_PRESENT) == 0)
+        {
+            return null;
+        }
+        final View view = new View(this, index);
+        final Point point = new Point();
+        point.distanceToOcean = view.distanceToOcean();
+        point.distanceToEdge = view.distanceToEdge();
+        point.baseOceanDepth = view.baseOceanDepth();
+        point.baseLandHeight = view.baseLandHeight();
+        point.biomeAltitude = view.biomeAltitude();
+        point.rainfall = view.rainfall();
+        point.temperature = view.temperature();
+        point.biome = view.biome();
+        point.rock = view.rock();
+        point.flags = (short) (flags[index] & ~FLAG_PRESENT);
+        return point;
+    }
+
+    /**
+     * A read-only view of a single point of a packed region. This holds no data of its own, only the position in the region's packed columns.
+     */
+    public record View(Region region, int index)
+    {
+        public byte distanceToOcean() { return region.bytes[index * BYTES_PER_POINT + BYTE_DISTANCE_TO_OCEAN]; }
+        public byte distanceToEdge() { return region.bytes[index * BYTES_PER_POINT + BYTE_DISTANCE_TO_EDGE]; }
+        public byte baseOceanDepth() { return region.bytes[index * BYTES_PER_POINT + BYTE_BASE_OCEAN_DEPTH]; }
+        public byte baseLandHeight() { return region.bytes[index * BYTES_PER_POINT + BYTE_BASE_LAND_HEIGHT]; }
+        public byte biomeAltitude() { return region.bytes[index * BYTES_PER_POINT + BYTE_BIOME_ALTITUDE]; }
+
+        public float rainfall() { return region.rainfall[index]; }
+        public float temperature() { return region.temperature[index]; }
+
+        public int biome() { return region.biome[index]; }
+        public int rock() { return region.rock[index]; }
+
+        public boolean land() { return (region.flags[index] & Point.FLAG_LAND) != 0; }
+        public boolean island() { return (region.flags[index] & Point.FLAG_ISLAND) != 0; }
+        public boolean shore() { return distanceToOcean() == -2; }
+        public boolean river() { return (region.flags[index] & Point.FLAG_RIVER) != 0; }
+        public boolean lake() { return (region.flags[index] & Point.FLAG_LAKE) != 0; }
+        public boolean mountain() { return (region.flags[index] & Point.FLAG_MOUNTAIN) != 0; }
+        public boolean coastalMountain() { return (region.flags[index] & Point.FLAG_COASTAL_MOUNTAIN) != 0; }
+
+        public int discreteBiomeAltitude() { return Math.floorDiv(biomeAltitude(), AnnotateBiomeAltitude.WIDTH); }
+    }
+
     public static class Point
     {
         static final short FLAG_LAND = 0b1;
@@ -6,12 +6,20 @@
 
 package net.dries007.tfc.world.region;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import net.minecraft.Util;
 import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -54,11 +62,28 @@ public class RegionGenerator
     private final FastConcurrentCache<Region> cellCache;
     private final FastConcurrentCache<RegionPartition> partitionCache;
 
+    // Builds which are currently in progress, keyed the same as the caches, so concurrent requests for the same region or partition wait for a single build
+    private final Map<Long, CompletableFuture<Region>> regionsInFlight;
+    private final Map<Long, CompletableFuture<RegionPartition>> partitionsInFlight;
+
     private final Cellular2D cellNoise;
+    private final @Nullable RegionStore store;
+    private final @Nullable RegionPrefetcher prefetcher;
 
     public RegionGenerator(Settings settings, RandomSource random)
+    {
+        this(settings, random, null, false);
+    }
+
+    /**
+     * @param storeRoot If not {@code null}, generated regions are persisted to, and loaded from, a {@link RegionStore} in this directory.
+     * @param prefetch If {@code true}, partitions and regions adjacent to those being requested are speculatively built in the background, by a {@link RegionPrefetcher}.
+     */
+    public RegionGenerator(Settings settings, RandomSource random, @Nullable Path storeRoot, boolean prefetch)
     {
         this.seed = random.nextLong();
+        this.store = storeRoot == null ? null : new RegionStore(storeRoot, RegionStore.key(seed, settings.temperatureScale(), settings.temperatureConstant(), settings.rainfallScale(), settings.rainfallConstant(), settings.continentalness()), Util.ioPool());
+        this.prefetcher = prefetch ? new RegionPrefetcher(this) : null;
 
         this.cellNoise = new Cellular2D(random.nextLong()).spread(1f / Units.CELL_WIDTH_IN_GRID);
 
@@ -66,6 +91,8 @@ public class RegionGenerator
         // Since cells are large (~12km), a small concurrent cache should be enough
         this.cellCache = new FastConcurrentCache<>(256);
         this.partitionCache = new FastConcurrentCache<>(256);
+        this.regionsInFlight = new ConcurrentHashMap<>();
+        this.partitionsInFlight = new ConcurrentHashMap<>();
 
         float min = settings.continentalness() * 10f - 2.5f; // range [0, 1], default 0.5 -> 2.5 continentalness
         this.continentNoise = cellNoise.then(c -> 1 - c.f1() / (0.37f + c.f2()))
@@ -102,21 +129,33 @@ public class RegionGenerator
 
     public RegionPartition.Point getOrCreatePartitionPoint(int gridX, int gridZ)
     {
-        return getOrCreatePartition(gridX, gridZ).get(gridX, gridZ);
+        final int cellX = Units.gridToCell(gridX);
+        final int cellZ = Units.gridToCell(gridZ);
+
+        RegionPartition partition = partitionCache.getIfPresent(cellX, cellZ);
+        if (partition == null)
+        {
+            // Only misses are observed, as they are rare, and are exactly when chunk generation has moved into a new cell
+            if (prefetcher != null)
+            {
+                prefetcher.observe(cellX, cellZ);
+            }
+            partition = build(partitionCache, partitionsInFlight, cellX, cellZ, () -> createPartition(cellX, cellZ));
+        }
+        return partition.get(gridX, gridZ);
     }
 
-    private RegionPartition getOrCreatePartition(int gridX, int gridZ)
+    boolean isPartitionCached(int cellX, int cellZ)
     {
-        final int cellX = Units.gridToCell(gridX);
-        final int cellZ = Units.gridToCell(gridZ);
+        return partitionCache.contains(cellX, cellZ);
+    }
 
-        RegionPartition entry = partitionCache.getIfPresent(cellX, cellZ);
-        if (entry == null)
+    void prefetchPartition(int cellX, int cellZ)
+    {
+        if (!partitionCache.contains(cellX, cellZ))
         {
-            entry = createPartition(cellX, cellZ);
-            partitionCache.set(cellX, cellZ, entry);
+            build(partitionCache, partitionsInFlight, cellX, cellZ, () -> createPartition(cellX, cellZ));
         }
-        return entry;
     }
 
     private RegionPartition createPartition(int cellX, int cellZ)
@@ -157,9 +196,9 @@ public class RegionGenerator
         return regions;
     }
 
-    public Region.Point getOrCreateRegionPoint(int gridX, int gridZ)
+    public Region.View getOrCreateRegionPoint(int gridX, int gridZ)
     {
-        return getOrCreateRegion(gridX, gridZ).requireAt(gridX, gridZ);
+        return getOrCreateRegion(gridX, gridZ).viewAt(gridX, gridZ);
     }
 
     @VisibleForTesting
@@ -173,13 +212,63 @@ public class RegionGenerator
         final int cellX = Float.floatToIntBits((float) cell.x());
         final int cellZ = Float.floatToIntBits((float) cell.y());
 
-        Region entry = cellCache.getIfPresent(cellX, cellZ);
-        if (entry == null)
+        return getOrBuild(cellCache, regionsInFlight, cellX, cellZ, () -> {
+            Region entry = store != null ? store.load(cell, cellX, cellZ) : null;
+            if (entry == null)
+            {
+                entry = createRegion(cell, (id, r) -> {});
+                if (store != null)
+                {
+                    store.save(cellX, cellZ, entry);
+                }
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Queries {@code cache}, and on a miss, builds and caches the value. If another thread is already building the same value, this waits for that build to finish, rather than building it again.
+     */
+    private static <T> T getOrBuild(FastConcurrentCache<T> cache, Map<Long, CompletableFuture<T>> inFlight, int x, int z, Supplier<T> builder)
+    {
+        final T entry = cache.getIfPresent(x, z);
+        return entry != null ? entry : build(cache, inFlight, x, z, builder);
+    }
+
+    /**
+     * Builds an entry which was not present in {@code cache}, or waits for an existing build of the same entry to finish.
+     */
+    private static <T> T build(FastConcurrentCache<T> cache, Map<Long, CompletableFuture<T>> inFlight, int x, int z, Supplier<T> builder)
+    {
+        final long key = ChunkPos.asLong(x, z);
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final CompletableFuture<T> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null)
+        {
+            return existing.join();
+        }
+
+        try
+        {
+            // Check again, as another build may have finished between querying the cache, and claiming this build
+            T entry = cache.getIfPresent(x, z);
+            if (entry == null)
+            {
+                entry = builder.get();
+                cache.set(x, z, entry);
+            }
+            future.complete(entry);
+            return entry;
+        }
+        catch (Throwable e)
+        {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally
         {
-            entry = createRegion(cell, (id, r) -> {});
-            cellCache.set(cellX, cellZ, entry);
+            inFlight.remove(key, future);
         }
-        return entry;
     }
 
     private Region createRegion(Cellular2D.Cell regionCell, BiConsumer<Task, Region> viewer)
@@ -257,6 +346,7 @@ public class RegionGenerator
             {
                 run(task);
             }
+            region.pack();
             return this;
         }
 
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.region;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.mojang.logging.LogUtils;
+import net.minecraft.world.level.ChunkPos;
+import org.slf4j.Logger;
+
+/**
+ * Speculatively builds partitions (and by extension, the regions they depend on) adjacent to the partition cells that chunk generation is currently requesting, so that the first chunk to cross into a new cell does not have to block on generating it.
+ * <p>
+ * Prefetching runs on a small, shared, pool of low priority daemon threads, with a bounded queue. Requests that cannot be queued are dropped, as they will simply be built on demand. Builds are deduplicated against the {@link RegionGenerator}'s in-flight builds, so a prefetch and a worker thread never generate the same region or partition at the same time.
+ */
+final class RegionPrefetcher
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final long NONE = Long.MIN_VALUE;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private static ThreadPoolExecutor createExecutor()
+    {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory factory = task -> {
+            final Thread thread = new Thread(task, "TFC-Region-Prefetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 8);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), factory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private final RegionGenerator generator;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastCell = new AtomicLong(NONE);
+
+    RegionPrefetcher(RegionGenerator generator)
+    {
+        this.generator = generator;
+    }
+
+    /**
+     * Called when a partition in the cell {@code (cellX, cellZ)} is requested by chunk generation, and was not cached. When this enters a new cell, schedules the surrounding cells to be prefetched, starting with the cell in the direction of travel.
+     */
+    void observe(int cellX, int cellZ)
+    {
+        final long key = ChunkPos.asLong(cellX, cellZ);
+        final long last = lastCell.get();
+        if (last == key || !lastCell.compareAndSet(last, key))
+        {
+            return;
+        }
+
+        if (last != NONE)
+        {
+            final int dx = Integer.signum(cellX - ChunkPos.getX(last));
+            final int dz = Integer.signum(cellZ - ChunkPos.getZ(last));
+            if (Math.abs(cellX - ChunkPos.getX(last)) <= 1 && Math.abs(cellZ - ChunkPos.getZ(last)) <= 1)
+            {
+                schedule(cellX + dx, cellZ + dz);
+            }
+        }
+        for (int dx = -1; dx <= 1; dx++)
+        {
+            for (int dz = -1; dz <= 1; dz++)
+            {
+                if (dx != 0 || dz != 0)
+                {
+                    schedule(cellX + dx, cellZ + dz);
+                }
+            }
+        }
+    }
+
+    private void schedule(int cellX, int cellZ)
+    {
+        final long key = ChunkPos.asLong(cellX, cellZ);
+        if (generator.isPartitionCached(cellX, cellZ) || !scheduled.add(key))
+        {
+            return;
+        }
+        try
+        {
+            EXECUTOR.execute(() -> {
+                try
+                {
+                    generator.prefetchPartition(cellX, cellZ);
+                }
+                catch (Throwable e)
+                {
+                    // Any failures here will be reproduced, and reported, by the non-speculative build
+                    LOGGER.debug("Error prefetching region partition at cell ({}, {})", cellX, cellZ, e);
+                }
+                finally
+                {
+                    scheduled.remove(key);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            scheduled.remove(key); // Queue is full, so drop this request
+        }
+    }
+}
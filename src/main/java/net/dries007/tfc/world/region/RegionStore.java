@@ -0,0 +1,267 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.region;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.HashCommon;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import net.dries007.tfc.world.noise.Cellular2D;
+import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.river.River;
+
+/**
+ * An on-disk store of fully generated {@link Region}s, so they do not need to be regenerated after a restart.
+ * <p>
+ * Each region is stored in its own file, named by the cell coordinates used by the {@link RegionGenerator}'s cache, within a directory named by a key derived from the world seed and region-relevant world generation settings. The file is a compact, uncompressed, binary format, which mirrors the packed columns of a {@link Region}, and is memory mapped when reading. Files are written to a temporary file and atomically moved in place, so a partially written region is never read. Any region which fails to load for any reason (missing, different version, corrupt) is simply regenerated and re-saved.
+ */
+public final class RegionStore
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final int MAGIC = 0x54464352; // 'TFCR'
+    private static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 * 3 + 4 * 4;
+    private static final int POINT_BYTES = Region.BYTES_PER_POINT + 2 + 4 * 2 + 4 * 2;
+    private static final int VERTEX_BYTES = 8 * 4 + 4;
+    private static final int EDGE_BYTES = VERTEX_BYTES * 2 + 4 + 4 + 8 + 4;
+
+    private final Path directory;
+    private final long key;
+    private final Executor writeExecutor;
+
+    public RegionStore(Path root, long key, Executor writeExecutor)
+    {
+        this.directory = root.resolve(Long.toHexString(key));
+        this.key = key;
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * @return A key that identifies the generated regions, from the region generator's seed and any settings which affect region generation.
+     */
+    public static long key(long seed, int temperatureScale, float temperatureConstant, int rainfallScale, float rainfallConstant, float continentalness)
+    {
+        long key = HashCommon.murmurHash3(seed);
+        key = 31 * key + temperatureScale;
+        key = 31 * key + Float.floatToIntBits(temperatureConstant);
+        key = 31 * key + rainfallScale;
+        key = 31 * key + Float.floatToIntBits(rainfallConstant);
+        key = 31 * key + Float.floatToIntBits(continentalness);
+        return HashCommon.murmurHash3(key);
+    }
+
+    /**
+     * @return The stored region for the given cell, or {@code null} if it is not present, or could not be loaded.
+     */
+    @Nullable
+    public Region load(Cellular2D.Cell cell, int cellX, int cellZ)
+    {
+        final Path path = pathOf(cellX, cellZ);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, cell);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.warn("Unable to load stored region at {}, it will be regenerated: {}", path, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the region asynchronously. Failures are logged and otherwise ignored, as the region can always be regenerated.
+     */
+    public void save(int cellX, int cellZ, Region region)
+    {
+        writeExecutor.execute(() -> {
+            final Path path = pathOf(cellX, cellZ);
+            try
+            {
+                Files.createDirectories(directory);
+
+                final ByteBuffer buffer = write(region);
+                final Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE))
+                {
+                    while (buffer.hasRemaining())
+                    {
+                        channel.write(buffer);
+                    }
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.warn("Unable to save region to {}: {}", path, e.toString());
+            }
+        });
+    }
+
+    private Path pathOf(int cellX, int cellZ)
+    {
+        return directory.resolve("r.%08x.%08x.bin".formatted(cellX, cellZ));
+    }
+
+    @Nullable
+    private Region read(ByteBuffer buffer, Cellular2D.Cell cell)
+    {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != key)
+        {
+            return null; // Written by a different version or world, so regenerate it
+        }
+
+        final double cellX = buffer.getDouble(), cellY = buffer.getDouble(), noise = buffer.getDouble();
+        if (cellX != cell.x() || cellY != cell.y() || noise != cell.noise())
+        {
+            return null;
+        }
+
+        final int minX = buffer.getInt(), minZ = buffer.getInt(), maxX = buffer.getInt(), maxZ = buffer.getInt();
+        final int size = (1 + maxX - minX) * (1 + maxZ - minZ);
+
+        // Regions are stored in the same packed, columnar, layout as they are held in memory, so each column is a single bulk copy
+        final byte[] bytes = new byte[size * Region.BYTES_PER_POINT];
+        final short[] flags = new short[size];
+        final float[] rainfall = new float[size];
+        final float[] temperature = new float[size];
+        final int[] biome = new int[size];
+        final int[] rock = new int[size];
+
+        buffer.get(bytes);
+        buffer.asShortBuffer().get(flags);
+        buffer.position(buffer.position() + 2 * size);
+        buffer.asFloatBuffer().get(rainfall);
+        buffer.position(buffer.position() + 4 * size);
+        buffer.asFloatBuffer().get(temperature);
+        buffer.position(buffer.position() + 4 * size);
+        buffer.asIntBuffer().get(biome);
+        buffer.position(buffer.position() + 4 * size);
+        buffer.asIntBuffer().get(rock);
+        buffer.position(buffer.position() + 4 * size);
+
+        final Region region = new Region(cellX, cellY, noise, minX, minZ, maxX, maxZ, bytes, flags, rainfall, temperature, biome, rock);
+
+        final int riverCount = buffer.getInt();
+        final List<RiverEdge> rivers = new ArrayList<>(riverCount);
+        final int[] drainIndices = new int[riverCount];
+        for (int i = 0; i < riverCount; i++)
+        {
+            final River.Vertex source = readVertex(buffer);
+            final River.Vertex drain = readVertex(buffer);
+            final int width = buffer.getInt();
+            drainIndices[i] = buffer.getInt();
+
+            final double norm = buffer.getDouble();
+            final double[] segments = new double[buffer.getInt()];
+            for (int j = 0; j < segments.length; j++)
+            {
+                segments[j] = buffer.getDouble();
+            }
+
+            final RiverEdge edge = new RiverEdge(source, drain, new MidpointFractal(segments, norm));
+            edge.width = width;
+            rivers.add(edge);
+        }
+        for (int i = 0; i < riverCount; i++)
+        {
+            // Re-linking also restores the source edge flag of each drain
+            rivers.get(i).linkToDrain(drainIndices[i] == -1 ? null : rivers.get(drainIndices[i]));
+        }
+        region.setRivers(rivers);
+        return region;
+    }
+
+    private ByteBuffer write(Region region)
+    {
+        final List<RiverEdge> rivers = region.rivers();
+
+        int size = HEADER_BYTES + region.packedLength(POINT_BYTES) + 4;
+        for (RiverEdge edge : rivers)
+        {
+            size += EDGE_BYTES + 8 * edge.fractal().segments.length;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(key);
+        buffer.putDouble(region.cellX()).putDouble(region.cellY()).putDouble(region.noise());
+        buffer.putInt(region.minX()).putInt(region.minZ()).putInt(region.maxX()).putInt(region.maxZ());
+
+        final int points = region.packedLength(1);
+
+        buffer.put(region.packedBytes());
+        buffer.asShortBuffer().put(region.packedFlags());
+        buffer.position(buffer.position() + 2 * points);
+        buffer.asFloatBuffer().put(region.packedRainfall());
+        buffer.position(buffer.position() + 4 * points);
+        buffer.asFloatBuffer().put(region.packedTemperature());
+        buffer.position(buffer.position() + 4 * points);
+        buffer.asIntBuffer().put(region.packedBiome());
+        buffer.position(buffer.position() + 4 * points);
+        buffer.asIntBuffer().put(region.packedRock());
+        buffer.position(buffer.position() + 4 * points);
+
+        final Map<RiverEdge, Integer> edgeIndices = new IdentityHashMap<>();
+        for (int i = 0; i < rivers.size(); i++)
+        {
+            edgeIndices.put(rivers.get(i), i);
+        }
+
+        buffer.putInt(rivers.size());
+        for (RiverEdge edge : rivers)
+        {
+            writeVertex(buffer, edge.source());
+            writeVertex(buffer, edge.drain());
+            buffer.putInt(edge.width());
+
+            final RiverEdge drainEdge = edge.drainEdge();
+            buffer.putInt(drainEdge == null ? -1 : edgeIndices.getOrDefault(drainEdge, -1));
+
+            final MidpointFractal fractal = edge.fractal();
+            buffer.putDouble(fractal.norm());
+            buffer.putInt(fractal.segments.length);
+            for (double segment : fractal.segments)
+            {
+                buffer.putDouble(segment);
+            }
+        }
+
+        assert !buffer.hasRemaining() : "Region buffer size mismatch, " + buffer.remaining() + " bytes remaining";
+        return buffer.flip();
+    }
+
+    private static River.Vertex readVertex(ByteBuffer buffer)
+    {
+        return new River.Vertex(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getInt());
+    }
+
+    private static void writeVertex(ByteBuffer buffer, River.Vertex vertex)
+    {
+        buffer.putDouble(vertex.x()).putDouble(vertex.y()).putDouble(vertex.angle()).putDouble(vertex.length()).putInt(vertex.distance());
+    }
+}
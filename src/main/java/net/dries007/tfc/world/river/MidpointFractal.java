@@ -100,6 +100,20 @@ public class MidpointFractal
         this.norm = ENCOMPASSING_RANGES[bisections] * RiverHelpers.normInf(sourceX - drainX, sourceY - drainY);
     }
 
+    /**
+     * Reconstructs a fractal from previously computed segments and norm, i.e. when loading a stored region.
+     */
+    public MidpointFractal(double[] segments, double norm)
+    {
+        this.segments = segments;
+        this.norm = norm;
+    }
+
+    public double norm()
+    {
+        return norm;
+    }
+
     /**
      * Checks if a given point (x, y) comes within a minimum {@code distance} of the bounding box of the fractal.
      * Faster and more efficient than checking {@link #intersect(double, double, double)}.
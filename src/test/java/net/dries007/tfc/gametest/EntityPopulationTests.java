@@ -0,0 +1,84 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.gametest;
+
+import java.util.Collection;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import net.dries007.tfc.MyTest;
+import net.dries007.tfc.TestAssertions;
+import net.dries007.tfc.common.entities.TFCEntities;
+import net.dries007.tfc.common.entities.prey.Pest;
+import net.dries007.tfc.util.tracker.EntityPopulation;
+
+@GameTestHolder
+public class EntityPopulationTests
+{
+    @GameTestGenerator
+    public Collection<TestFunction> generator()
+    {
+        return TestAssertions.testGenerator();
+    }
+
+    @MyTest(timeoutTicks = 600)
+    public void testPestCountIsUnchangedByReloadingChunk(GameTestHelper helper)
+    {
+        // Use a chunk far from the test, which can be unloaded, as the chunks of the test itself are kept loaded
+        final ServerLevel level = helper.getLevel();
+        final ChunkPos chunk = new ChunkPos(helper.absolutePos(BlockPos.ZERO).offset(1024, 0, 1024));
+        final BlockPos center = chunk.getMiddleBlockPosition(0);
+
+        level.setChunkForced(chunk.x, chunk.z, true);
+
+        final Pest rat = TFCEntities.RAT.get().create(level);
+        helper.assertTrue(rat != null, "Expected a rat to be created");
+        rat.moveTo(level.getHeightmapPos(Heightmap.Types.MOTION_BLOCKING, center), 0, 0);
+        rat.setPersistenceRequired(); // So it is saved with the chunk, and cannot despawn
+        level.addFreshEntity(rat);
+
+        final int expected = countPests(level, chunk);
+        assertPestCount(helper, level, chunk, expected);
+        helper.assertTrue(expected > 0, "Expected the rat to be counted");
+
+        helper.startSequence()
+            .thenExecute(() -> level.setChunkForced(chunk.x, chunk.z, false))
+            .thenWaitUntil(() -> helper.assertTrue(EntityPopulation.count(level, EntityPopulation.PESTS, center, 7) == 0, "Expected the chunk to unload"))
+            .thenExecute(() -> level.setChunkForced(chunk.x, chunk.z, true))
+            .thenWaitUntil(() -> helper.assertTrue(countPests(level, chunk) == expected, "Expected the rat to load with the chunk"))
+            .thenIdle(20)
+            .thenExecute(() -> assertPestCount(helper, level, chunk, expected))
+            .thenExecute(() -> {
+                level.getEntitiesOfClass(Pest.class, chunkBounds(level, chunk)).forEach(Pest::discard);
+                level.setChunkForced(chunk.x, chunk.z, false);
+            })
+            .thenSucceed();
+    }
+
+    private void assertPestCount(GameTestHelper helper, ServerLevel level, ChunkPos chunk, int expected)
+    {
+        final int actual = EntityPopulation.count(level, EntityPopulation.PESTS, chunk.getMiddleBlockPosition(0), 7);
+        helper.assertTrue(actual == expected, "Expected a population of " + expected + " pests, but got " + actual);
+    }
+
+    private int countPests(ServerLevel level, ChunkPos chunk)
+    {
+        return level.getEntitiesOfClass(Pest.class, chunkBounds(level, chunk)).size();
+    }
+
+    private AABB chunkBounds(ServerLevel level, ChunkPos chunk)
+    {
+        return new AABB(chunk.getMinBlockX(), level.getMinBuildHeight(), chunk.getMinBlockZ(), chunk.getMaxBlockX() + 1, level.getMaxBuildHeight(), chunk.getMaxBlockZ() + 1);
+    }
+}
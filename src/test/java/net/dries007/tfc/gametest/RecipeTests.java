@@ -7,12 +7,16 @@
 package net.dries007.tfc.gametest;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import io.netty.buffer.Unpooled;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.gametest.framework.GameTestGenerator;
 import net.minecraft.gametest.framework.GameTestHelper;
 import net.minecraft.gametest.framework.TestFunction;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.inventory.CraftingContainer;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.CraftingRecipe;
@@ -28,9 +32,13 @@ import net.dries007.tfc.TestAssertions;
 import net.dries007.tfc.TestHelper;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.IFood;
+import net.dries007.tfc.common.recipes.AlloyRecipe;
+import net.dries007.tfc.util.Alloy;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.Metal;
 import net.dries007.tfc.util.calendar.CalendarTransaction;
 import net.dries007.tfc.util.calendar.Calendars;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 
 import static net.dries007.tfc.TestAssertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -94,6 +102,41 @@ public class RecipeTests
         }
     }
 
+    @MyTest(unitTest = true)
+    public void testMostSpecificOverlappingAlloyRecipeMatches(GameTestHelper helper)
+    {
+        final Metal copper = Metal.MANAGER.getOrThrow(Helpers.identifier("copper"));
+        final Metal tin = Metal.MANAGER.getOrThrow(Helpers.identifier("tin"));
+
+        // Both recipes have the same metals, and overlap around 90% copper, so the narrower one must be preferred where they overlap
+        final AlloyRecipe narrow = new AlloyRecipe(Helpers.identifier("test/narrow"), Map.of(
+            Metal.MANAGER.getReference(copper.getId()), new AlloyRecipe.Range(0.88, 0.92),
+            Metal.MANAGER.getReference(tin.getId()), new AlloyRecipe.Range(0.08, 0.12)
+        ), Metal.MANAGER.getReference(Helpers.identifier("bronze")));
+        final AlloyRecipe wide = new AlloyRecipe(Helpers.identifier("test/wide"), Map.of(
+            Metal.MANAGER.getReference(copper.getId()), new AlloyRecipe.Range(0.5, 1.0),
+            Metal.MANAGER.getReference(tin.getId()), new AlloyRecipe.Range(0.0, 0.5)
+        ), Metal.MANAGER.getReference(Helpers.identifier("black_bronze")));
+
+        for (List<AlloyRecipe> recipes : List.of(List.of(narrow, wide), List.of(wide, narrow)))
+        {
+            final IndirectHashCollection<Set<ResourceLocation>, AlloyRecipe> cache = new IndirectHashCollection<>(AlloyRecipe::getValidMetals);
+            cache.reload(AlloyRecipe.sortBySpecificity(recipes));
+
+            assertSame(narrow, AlloyRecipe.get(cache, alloy(copper, 90, tin, 10)).orElse(null));
+            assertSame(wide, AlloyRecipe.get(cache, alloy(copper, 70, tin, 30)).orElse(null));
+            assertTrue(AlloyRecipe.get(cache, alloy(copper, 30, tin, 70)).isEmpty());
+        }
+    }
+
+    private Alloy alloy(Metal first, int firstAmount, Metal second, int secondAmount)
+    {
+        final Alloy alloy = new Alloy();
+        alloy.add(first, firstAmount, false);
+        alloy.add(second, secondAmount, false);
+        return alloy;
+    }
+
     @SuppressWarnings("unchecked")
     private ItemStack getOutputOfRecipe(Recipe<?> recipe)
     {
@@ -0,0 +1,46 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.BiomeSampleCache;
+import net.dries007.tfc.world.Sampler;
+import net.dries007.tfc.world.biome.BiomeExtension;
+import net.dries007.tfc.world.biome.TFCBiomes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BiomeSampleCacheTests extends TestHelper
+{
+    @Test
+    public void testSamplesAreSharedBetweenQueries()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        final Sampler<BiomeExtension> sampler = (x, z) -> {
+            calls.incrementAndGet();
+            return ((x ^ z) & 4) == 0 ? TFCBiomes.OCEAN : TFCBiomes.PLAINS;
+        };
+        final BiomeSampleCache cache = new BiomeSampleCache(sampler, 2, 64);
+
+        for (int pass = 0; pass < 2; pass++)
+        {
+            for (int x = -64; x < 64; x += 4)
+            {
+                for (int z = -64; z < 64; z += 4)
+                {
+                    assertSame(sampler.get(x, z), cache.get(x, z));
+                }
+            }
+        }
+
+        // Each pass calls the sampler directly 32 * 32 times, but the cache should only call it once per point
+        assertEquals(32 * 32 * 3, calls.get());
+    }
+}
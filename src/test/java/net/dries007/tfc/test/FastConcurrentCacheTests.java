@@ -0,0 +1,122 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastConcurrentCacheTests
+{
+    @Test
+    public void testGetAndSet()
+    {
+        final FastConcurrentCache<String> cache = new FastConcurrentCache<>(16);
+
+        assertNull(cache.getIfPresent(1, 2));
+        cache.set(1, 2, "a");
+        cache.set(-3, 4, "b");
+        assertEquals("a", cache.getIfPresent(1, 2));
+        assertEquals("b", cache.getIfPresent(-3, 4));
+        assertNull(cache.getIfPresent(2, 1));
+
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    public void testContainsIsNotCounted()
+    {
+        final FastConcurrentCache<String> cache = new FastConcurrentCache<>(16);
+
+        cache.set(1, 2, "a");
+        assertTrue(cache.contains(1, 2));
+        assertFalse(cache.contains(2, 1));
+
+        assertEquals(0, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    public void testReplaceExistingKey()
+    {
+        final FastConcurrentCache<String> cache = new FastConcurrentCache<>(FastConcurrentCache.WAYS);
+
+        cache.set(0, 0, "a");
+        cache.set(0, 0, "b");
+        assertEquals("b", cache.getIfPresent(0, 0));
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted()
+    {
+        // A cache with exactly one set, so every key collides
+        final FastConcurrentCache<Integer> cache = new FastConcurrentCache<>(FastConcurrentCache.WAYS);
+        assertEquals(FastConcurrentCache.WAYS, cache.capacity());
+
+        for (int i = 0; i < FastConcurrentCache.WAYS; i++)
+        {
+            cache.set(i, 0, i);
+        }
+
+        // Touch all but the first entry, which becomes the least recently used
+        for (int i = 1; i < FastConcurrentCache.WAYS; i++)
+        {
+            assertEquals(i, cache.getIfPresent(i, 0));
+        }
+
+        cache.set(100, 0, 100);
+
+        assertNull(cache.getIfPresent(0, 0));
+        for (int i = 1; i < FastConcurrentCache.WAYS; i++)
+        {
+            assertEquals(i, cache.getIfPresent(i, 0));
+        }
+        assertEquals(100, cache.getIfPresent(100, 0));
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    public void testConcurrentAccessNeverReturnsWrongValue() throws InterruptedException
+    {
+        final FastConcurrentCache<Long> cache = new FastConcurrentCache<>(64);
+        final Thread[] threads = new Thread[8];
+        final boolean[] failed = new boolean[1];
+
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++)
+                {
+                    final int x = (i * 31 + seed) % 97, z = (i * 17) % 89;
+                    final Long value = cache.getIfPresent(x, z);
+                    if (value == null)
+                    {
+                        cache.set(x, z, (long) x * 1000 + z);
+                    }
+                    else if (value != (long) x * 1000 + z)
+                    {
+                        failed[0] = true;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertFalse(failed[0]);
+        assertEquals(8 * 100_000, cache.hits() + cache.misses());
+    }
+}
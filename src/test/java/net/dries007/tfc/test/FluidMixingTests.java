@@ -0,0 +1,97 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import net.minecraft.world.level.material.FlowingFluid;
+import net.minecraft.world.level.material.Fluids;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.fluids.FluidHelpers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FluidMixingTests extends TestHelper
+{
+    private static final FlowingFluid W = Fluids.WATER, L = Fluids.LAVA, OTHER = Fluids.FLOWING_WATER;
+
+    @Test
+    public void testSingleFluid()
+    {
+        final FluidHelpers.AdjacentSources sources = sources(W, W, W);
+
+        assertEquals(3, sources.size());
+        assertEquals(3, sources.count(W));
+        assertEquals(0, sources.count(L));
+        assertEquals(W, sources.selectMaximum(L));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        final FluidHelpers.AdjacentSources sources = sources();
+
+        assertEquals(0, sources.size());
+        assertEquals(0, sources.count(W));
+    }
+
+    @Test
+    public void testMixedCounts()
+    {
+        final FluidHelpers.AdjacentSources sources = sources(W, L, L, W);
+
+        assertEquals(4, sources.size());
+        assertEquals(2, sources.count(W));
+        assertEquals(2, sources.count(L));
+        assertEquals(0, sources.count(OTHER));
+    }
+
+    @Test
+    public void testTieIsBrokenBySelf()
+    {
+        assertEquals(W, sources(W, L).selectMaximum(W));
+        assertEquals(L, sources(W, L).selectMaximum(L));
+        assertEquals(L, sources(W, L, L, W).selectMaximum(L));
+    }
+
+    @Test
+    public void testTieIsBrokenByFirstSeen()
+    {
+        assertEquals(W, sources(W, L).selectMaximum(OTHER));
+        assertEquals(L, sources(L, W).selectMaximum(OTHER));
+        assertEquals(W, sources(W, L, L, W).selectMaximum(OTHER));
+    }
+
+    @Test
+    public void testSelfSeenFirstIsReplacedByGreaterCount()
+    {
+        final FluidHelpers.AdjacentSources sources = sources(L, W, W);
+
+        assertEquals(W, sources.selectMaximum(L));
+        assertEquals(2, sources.count(W));
+        assertEquals(W, sources(L, W, W, W).selectMaximum(L));
+    }
+
+    @Test
+    public void testSelfSeenLastIsPreferredOverGreaterCount()
+    {
+        final FluidHelpers.AdjacentSources sources = sources(W, W, L);
+
+        assertEquals(L, sources.selectMaximum(L));
+        assertEquals(1, sources.count(L));
+    }
+
+    private FluidHelpers.AdjacentSources sources(FlowingFluid... fluids)
+    {
+        final FluidHelpers.AdjacentSources sources = new FluidHelpers.AdjacentSources();
+        for (FlowingFluid fluid : fluids)
+        {
+            sources.add(fluid);
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.world.noise.Cellular2D;
+import net.dries007.tfc.world.noise.Noise2D;
+import net.dries007.tfc.world.noise.OpenSimplex2D;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Noise2DTests
+{
+    @Test
+    public void testFillGridMatchesNoise()
+    {
+        final List<Noise2D> noises = List.of(
+            new OpenSimplex2D(1234L).octaves(4).spread(0.01f).scaled(-10, 30),
+            new OpenSimplex2D(1234L).spread(0.05f).octaves(3).ridged().terraces(5),
+            new OpenSimplex2D(1234L).spread(0.02f).abs().add(new Cellular2D(5678L).spread(0.03f)).clamped(0.2, 0.8),
+            new OpenSimplex2D(1234L).spread(0.03f).map(x -> x > 0 ? x : 0).lazyProduct(new OpenSimplex2D(91011L).octaves(2).spread(0.1f)),
+            new OpenSimplex2D(1234L).octaves(2).spread(0.04f).warped(new OpenSimplex2D(4321L).octaves(2).spread(0.02f).scaled(-20, 20))
+        );
+        for (Noise2D noise : noises)
+        {
+            final double[] out = new double[16 * 16];
+            noise.fillGrid(out, -200, 300, 3, 16, 16);
+            for (int i = 0; i < 16; i++)
+            {
+                for (int j = 0; j < 16; j++)
+                {
+                    assertEquals(noise.noise(-200 + i * 3, 300 + j * 3), out[i + 16 * j]);
+                }
+            }
+        }
+    }
+}
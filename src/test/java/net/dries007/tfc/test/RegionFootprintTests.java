@@ -0,0 +1,76 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.region.Region;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the retained heap of packed regions, against the equivalent data held as one {@link Region.Point} object per grid point.
+ */
+public class RegionFootprintTests extends TestHelper
+{
+    private static final int REGIONS = 8;
+
+    @Test
+    public void testPackedRegionsRetainLessHeap()
+    {
+        final RegionGenerator generator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(1234L));
+        generator.getOrCreateRegion(-10_000, -10_000); // Warm up any lazily initialized generator state
+
+        final long baseline = usedHeapAfterGc();
+
+        final List<Region> packed = new ArrayList<>();
+        for (int i = 0; i < REGIONS; i++)
+        {
+            final Region region = generator.getOrCreateRegion(i * 500, 0);
+            assertTrue(region.isPacked());
+            packed.add(region);
+        }
+
+        final long packedBytes = usedHeapAfterGc() - baseline;
+
+        final List<Region.Point[]> unpacked = new ArrayList<>();
+        for (Region region : packed)
+        {
+            final Region.Point[] points = new Region.Point[region.sizeX() * region.sizeZ()];
+            for (int x = region.minX(); x <= region.maxX(); x++)
+            {
+                for (int z = region.minZ(); z <= region.maxZ(); z++)
+                {
+                    points[region.index(x, z)] = region.at(x, z);
+                }
+            }
+            unpacked.add(points);
+        }
+
+        final long unpackedBytes = usedHeapAfterGc() - baseline - packedBytes;
+
+        assertEquals(REGIONS, packed.size());
+        assertEquals(REGIONS, unpacked.size());
+        assertTrue(packedBytes < unpackedBytes, "Packed regions retained %d bytes, compared to %d bytes for regions of points".formatted(packedBytes, unpackedBytes));
+    }
+
+    private static long usedHeapAfterGc()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
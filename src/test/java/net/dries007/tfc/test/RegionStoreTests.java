@@ -0,0 +1,128 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+import org.junit.jupiter.api.Test;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.noise.Cellular2D;
+import net.dries007.tfc.world.region.Region;
+import net.dries007.tfc.world.region.RegionGenerator;
+import net.dries007.tfc.world.region.RegionStore;
+import net.dries007.tfc.world.region.RiverEdge;
+import net.dries007.tfc.world.settings.Settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionStoreTests extends TestHelper
+{
+    @Test
+    public void testSaveAndLoadRegion() throws IOException
+    {
+        final Path root = Files.createTempDirectory("tfc_regions");
+        final RegionGenerator generator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(1234L));
+        final Region region = generator.getOrCreateRegion(0, 0);
+        final Cellular2D.Cell cell = new Cellular2D.Cell(region.cellX(), region.cellY(), 0, 0, 0, 0, region.noise());
+
+        final RegionStore store = new RegionStore(root, 1L, Runnable::run);
+        assertNull(store.load(cell, 1, 2));
+
+        store.save(1, 2, region);
+        final Region loaded = store.load(cell, 1, 2);
+
+        assertNotNull(loaded);
+        assertEquals(region.toString(), loaded.toString());
+        for (int x = region.minX(); x <= region.maxX(); x++)
+        {
+            for (int z = region.minZ(); z <= region.maxZ(); z++)
+            {
+                final Region.Point expected = region.at(x, z), actual = loaded.at(x, z);
+                if (expected == null)
+                {
+                    assertNull(actual);
+                    continue;
+                }
+                assertNotNull(actual);
+                assertEquals(expected.distanceToOcean, actual.distanceToOcean);
+                assertEquals(expected.biomeAltitude, actual.biomeAltitude);
+                assertEquals(expected.temperature, actual.temperature);
+                assertEquals(expected.rainfall, actual.rainfall);
+                assertEquals(expected.biome, actual.biome);
+                assertEquals(expected.rock, actual.rock);
+                assertEquals(expected.land(), actual.land());
+                assertEquals(expected.river(), actual.river());
+            }
+        }
+
+        assertEquals(region.rivers().size(), loaded.rivers().size());
+        for (int i = 0; i < region.rivers().size(); i++)
+        {
+            final RiverEdge expected = region.rivers().get(i), actual = loaded.rivers().get(i);
+            assertEquals(expected.source(), actual.source());
+            assertEquals(expected.drain(), actual.drain());
+            assertEquals(expected.width(), actual.width());
+            assertEquals(expected.sourceEdge(), actual.sourceEdge());
+            assertEquals(expected.drainEdge() == null, actual.drainEdge() == null);
+            assertArrayEquals(expected.fractal().segments, actual.fractal().segments);
+        }
+    }
+
+    @Test
+    public void testLoadWithDifferentKeyFails() throws IOException
+    {
+        final Path root = Files.createTempDirectory("tfc_regions");
+        final RegionGenerator generator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(1234L));
+        final Region region = generator.getOrCreateRegion(0, 0);
+        final Cellular2D.Cell cell = new Cellular2D.Cell(region.cellX(), region.cellY(), 0, 0, 0, 0, region.noise());
+
+        new RegionStore(root, 1L, Runnable::run).save(0, 0, region);
+        assertNotNull(new RegionStore(root, 1L, Runnable::run).load(cell, 0, 0));
+
+        // Each key is stored in its own directory, so copy the file to where a store with another key would look for it, in order to reach the header check
+        final Path file = storedFile(root, 1L);
+        final Path otherFile = root.resolve(Long.toHexString(2L)).resolve(file.getFileName());
+        Files.createDirectories(otherFile.getParent());
+        Files.copy(file, otherFile);
+
+        assertNull(new RegionStore(root, 2L, Runnable::run).load(cell, 0, 0));
+    }
+
+    @Test
+    public void testLoadWithCorruptHeaderFails() throws IOException
+    {
+        final Path root = Files.createTempDirectory("tfc_regions");
+        final RegionGenerator generator = new RegionGenerator(new Settings(false, 0, 0, 0, 20_000, 0, 20_000, 0, null, 0.5f), new XoroshiroRandomSource(1234L));
+        final Region region = generator.getOrCreateRegion(0, 0);
+        final Cellular2D.Cell cell = new Cellular2D.Cell(region.cellX(), region.cellY(), 0, 0, 0, 0, region.noise());
+
+        final RegionStore store = new RegionStore(root, 1L, Runnable::run);
+        store.save(0, 0, region);
+
+        final Path file = storedFile(root, 1L);
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[0] ^= 0xFF; // Corrupt the magic number
+        Files.write(file, bytes);
+
+        assertNull(store.load(cell, 0, 0));
+    }
+
+    private Path storedFile(Path root, long key) throws IOException
+    {
+        try (Stream<Path> files = Files.list(root.resolve(Long.toHexString(key))))
+        {
+            final List<Path> stored = files.toList();
+            assertEquals(1, stored.size());
+            return stored.get(0);
+        }
+    }
+}
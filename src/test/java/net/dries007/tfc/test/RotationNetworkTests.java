@@ -506,12 +506,86 @@ public class RotationNetworkTests
 
 
     
+    @Test
+    public void testManyNetworks()
+    {
+        final RotationMock mock = mock();
+        final int size = 64, height = 5; // 4096 networks, each a vertical line of a source and four nodes
+
+        for (int x = 0; x < size; x++)
+        {
+            for (int z = 0; z < size; z++)
+            {
+                assertTrue(mock.addSource(2 * x, 0, 2 * z, UP));
+                for (int y = 1; y < height; y++)
+                {
+                    assertTrue(mock.add(2 * x, y, 2 * z, DOWN, UP));
+                }
+            }
+        }
+        assertNetworks(mock, size, height, height);
+
+        // Removing a node disconnects only the nodes above it, in its own network
+        for (int x = 0; x < size; x++)
+        {
+            for (int z = 0; z < size; z++)
+            {
+                mock.remove(2 * x, 2, 2 * z);
+            }
+        }
+        assertNetworks(mock, size, height, 2);
+
+        // And adding it back reconnects them
+        for (int x = 0; x < size; x++)
+        {
+            for (int z = 0; z < size; z++)
+            {
+                assertTrue(mock.add(2 * x, 2, 2 * z, DOWN, UP));
+            }
+        }
+        assertNetworks(mock, size, height, height);
+
+        // Connecting two networks between any adjacent pair breaks the connecting node, and leaves both networks intact
+        for (int x = 0; x < size - 1; x++)
+        {
+            assertTrue(mock.update(2 * x, height - 1, 0, n -> n.connections().add(EAST)));
+            assertTrue(mock.update(2 * x + 2, height - 1, 0, n -> n.connections().add(WEST)));
+            assertFalse(mock.add(2 * x + 1, height - 1, 0, EAST, WEST));
+        }
+        assertNetworks(mock, size, height, height);
+    }
+
     private RotationMock mock()
     {
         return new RotationMock(new RotationNetworkManager(), new HashMap<>());
     }
 
 
+    private void assertNetworks(RotationMock mock, int size, int height, int connectedHeight)
+    {
+        for (int x = 0; x < size; x++)
+        {
+            for (int z = 0; z < size; z++)
+            {
+                final Node source = mock.manager().getNode(new BlockPos(2 * x, 0, 2 * z));
+                assertNotNull(source);
+                for (int y = 1; y < height; y++)
+                {
+                    final Node node = mock.manager().getNode(new BlockPos(2 * x, y, 2 * z));
+                    if (y == connectedHeight)
+                    {
+                        assertNull(node); // The node which was removed to disconnect the rest
+                    }
+                    else
+                    {
+                        assertNotNull(node);
+                        assertEquals(y < connectedHeight ? source.network() : Node.NO_NETWORK, node.network());
+                    }
+                }
+            }
+        }
+    }
+
     record RotationMock(RotationNetworkManager manager, Map<BlockPos, Node> sourceNodes)
     {
         boolean add(int x, int y, int z) { return add(x, y, z, MockNode::new, EnumSet.noneOf(Direction.class)); }